@@ -33,13 +33,11 @@ export const AdminPerformancePage: React.FC = () => {
     const fetchAndCalculate = async () => {
       setIsLoading(true);
       try {
-        const [tasks, users] = await Promise.all([
-            tasksApi.getAll(),
+        const [assigneeStats, users] = await Promise.all([
+            tasksApi.getAssigneeStats(),
             usersApi.getAll()
         ]);
         
-        console.log('Leaderboard Data - Users:', users.length, 'Tasks:', tasks.length);
-        
         // 1. Initialize stats map with ALL users using email as key (for backward compatibility)
         const statsMap: Record<string, UserStats> = {};
         
@@ -53,7 +51,8 @@ export const AdminPerformancePage: React.FC = () => {
                 return; // Skip users without email
             }
 
-            statsMap[u.email] = {
+            // Keyed by lower-cased email: the server aggregates case-insensitively
+            statsMap[u.email.toLowerCase()] = {
                 id: u.id,
                 name: u.name,
                 email: u.email,
@@ -69,56 +68,14 @@ export const AdminPerformancePage: React.FC = () => {
             };
         });
 
-        // 2. Aggregate Task Data - Now handles multi-assignee tasks
-        tasks.forEach(task => {
-            // Check if task has multiple assignees (new format)
-            if (task.assignedToList && task.assignedToList.length > 0) {
-                // For multi-assignee tasks, count for ALL assignees
-                task.assignedToList.forEach(assigneeEmail => {
-                    // Use email as key to find user stats directly
-                    const matchedStats = statsMap[assigneeEmail];
-                    
-                    if (matchedStats) {
-                        matchedStats.total++;
-                        if (['Completed', 'Done', 'Posted'].includes(task.status)) {
-                            matchedStats.completed++;
-                        } else if (['In Progress', 'In Review'].includes(task.status)) {
-                            matchedStats.inProgress++;
-                        } else if (['Not Started'].includes(task.status)) {
-                            matchedStats.pending++;
-                        }
-                    }
-                });
-            } else {
-                // Fallback to old single-assignee logic for backward compatibility
-                let matchedStats: UserStats | undefined;
-
-                // Try to find by assigneeId first (look up email by id)
-                if (task.assigneeId) {
-                    matchedStats = Object.values(statsMap).find(s => s.id === task.assigneeId);
-                }
-                
-                // If not found, try matching by name
-                if (!matchedStats && task.assignedTo && task.assignedTo !== 'Unassigned') {
-                    // Try exact email match first (in case assignedTo is an email)
-                    matchedStats = statsMap[task.assignedTo];
-                    
-                    // If not found, try name match as final fallback
-                    if (!matchedStats) {
-                        matchedStats = Object.values(statsMap).find(s => s.name === task.assignedTo);
-                    }
-                }
-
-                if (matchedStats) {
-                    matchedStats.total++;
-                    if (['Completed', 'Done', 'Posted'].includes(task.status)) {
-                        matchedStats.completed++;
-                    } else if (['In Progress', 'In Review'].includes(task.status)) {
-                        matchedStats.inProgress++;
-                    } else if (['Not Started'].includes(task.status)) {
-                        matchedStats.pending++;
-                    }
-                }
+        // 2. Merge per-assignee counts aggregated server-side (multi-assignee and legacy tasks)
+        assigneeStats.forEach(row => {
+            const matchedStats = row.assigneeEmail ? statsMap[row.assigneeEmail.toLowerCase()] : undefined;
+            if (matchedStats) {
+                matchedStats.total = row.total;
+                matchedStats.completed = row.completed;
+                matchedStats.inProgress = row.inProgress;
+                matchedStats.pending = row.pending;
             }
         });
 
@@ -129,9 +86,6 @@ export const AdminPerformancePage: React.FC = () => {
                 completionRate: s.total > 0 ? (s.completed / s.total) * 100 : 0
             }));
 
-        console.log('Leaderboard - Total users in statsMap:', Object.keys(statsMap).length);
-        console.log('Leaderboard - Final stats array:', finalStats.length);
-
         // 4. SORTING LOGIC: Completed Volume (Desc) -> Efficiency Score (Desc) -> Total Assigned (Desc)
         // This ensures users with high output rank higher than users with low volume but 100% rate.
         finalStats.sort((a, b) => {
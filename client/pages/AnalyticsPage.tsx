@@ -8,7 +8,7 @@ import { useToast } from '../context/ToastContext';
 import { useLayout } from '../context/LayoutContext';
 import { crmApi, tasksApi, usersApi } from '../services/api';
 import { formatMoney, exportToCSV } from '../utils';
-import { CRMEntry } from '../types';
+import { CRMAnalytics } from '../types';
 
 interface AnalyticsPageProps {
   title: string;
@@ -18,7 +18,7 @@ export const AnalyticsPage: React.FC<AnalyticsPageProps> = ({ title }) => {
     const { user } = useAuth();
     const { showToast } = useToast();
     const { isSidebarCollapsed } = useLayout();
-    const [entries, setEntries] = useState<CRMEntry[]>([]);
+    const [analytics, setAnalytics] = useState<CRMAnalytics | null>(null);
     const [isLoading, setIsLoading] = useState(true);
     const [isRevenueVisible, setIsRevenueVisible] = useState(false);
     
@@ -30,8 +30,8 @@ export const AnalyticsPage: React.FC<AnalyticsPageProps> = ({ title }) => {
             if (!mounted) return;
             if (hasPermission) {
                 try {
-                    const data = await crmApi.getAll();
-                    if (mounted) setEntries(data.crmList);
+                    const data = await crmApi.getAnalytics();
+                    if (mounted) setAnalytics(data);
                 } catch (error) {
                     console.error("Failed to fetch analytics data", error);
                 } finally {
@@ -53,6 +53,7 @@ export const AnalyticsPage: React.FC<AnalyticsPageProps> = ({ title }) => {
             const timestamp = new Date().toISOString().split('T')[0];
 
             if (type === 'crm') {
+                const { crmList: entries } = await crmApi.getAll();
                 dataToExport = entries.map(e => ({
                     ID: e.id,
                     Company: e.company,
@@ -67,7 +68,7 @@ export const AnalyticsPage: React.FC<AnalyticsPageProps> = ({ title }) => {
                     Source: e.leadSources?.join(', ') || ''
                 }));
             } else if (type === 'tasks') {
-                const tasks = await tasksApi.getAll();
+                const [tasks, { crmList: entries }] = await Promise.all([tasksApi.getAll(), crmApi.getAll()]);
                 const companyMap: Record<number, string> = {};
                 entries.forEach(c => companyMap[c.id] = c.company);
 
@@ -149,35 +150,24 @@ export const AnalyticsPage: React.FC<AnalyticsPageProps> = ({ title }) => {
         );
     }
 
-    const totalRevenue = entries.reduce((acc, curr) => acc + (curr.dealValue || 0), 0);
-    const wonDeals = entries.filter(e => {
-        const s = e.status?.toLowerCase() || '';
-        return s === 'onboarded' || s === 'completed';
-    }).length;
+    // Aggregates are computed server-side by /crm/analytics
+    const totalRevenue = analytics?.totalDealValue || 0;
+    const conversionRate = analytics?.conversionRate || 0;
+    const avgDealSize = analytics?.averageDealValue || 0;
 
-    const conversionRate = entries.length > 0 ? (wonDeals / entries.length) * 100 : 0;
-    const avgDealSize = entries.length > 0 ? totalRevenue / entries.length : 0;
-
-    const revenueBySource: Record<string, number> = {};
-    entries.forEach(e => {
-        const source = (e.leadSources && e.leadSources[0]) ? e.leadSources[0] : 'Unknown';
-        revenueBySource[source] = (revenueBySource[source] || 0) + (e.dealValue || 0);
-    });
-
-    // FILTER OUT SOURCES WITH 0 REVENUE
-    const sortedSources = Object.entries(revenueBySource)
-        .filter(([, value]) => value > 0)
-        .sort(([, a], [, b]) => b - a)
-        .slice(0, 10); // Show top 10 contributing sources
+    // FILTER OUT SOURCES WITH 0 REVENUE (server returns sources sorted by revenue)
+    const sortedSources: [string, number][] = (analytics?.byLeadSource || [])
+        .filter(b => b.dealValue > 0)
+        .slice(0, 10) // Show top 10 contributing sources
+        .map(b => [b.key, b.dealValue]);
 
     const maxSourceRevenue = sortedSources.length > 0 ? sortedSources[0][1] : 0;
 
     const statusCounts: Record<string, number> = {};
-    entries.forEach(e => {
-        const status = e.status ? e.status.toLowerCase() : 'unknown';
-        statusCounts[status] = (statusCounts[status] || 0) + 1;
+    (analytics?.byStatus || []).forEach(b => {
+        statusCounts[b.key] = b.count;
     });
-    const totalDeals = entries.length;
+    const totalDeals = analytics?.totalEntries || 0;
 
     return (
         <div className="flex min-h-screen mesh-bg relative">
@@ -230,7 +220,7 @@ export const AnalyticsPage: React.FC<AnalyticsPageProps> = ({ title }) => {
                                 <p className="text-[9px] lg:text-[10px] font-black text-slate-400 uppercase tracking-[0.3em] mb-2">Win Rate</p>
                                 <div className="flex items-baseline gap-3">
                                     <h3 className="text-3xl lg:text-4xl font-black text-slate-900 tracking-tighter">{isLoading ? '...' : `${conversionRate.toFixed(1)}%`}</h3>
-                                    <span className="text-[10px] lg:text-xs font-bold text-slate-500 bg-slate-100 px-2 py-1 rounded-lg">of {entries.length} leads</span>
+                                    <span className="text-[10px] lg:text-xs font-bold text-slate-500 bg-slate-100 px-2 py-1 rounded-lg">of {totalDeals} leads</span>
                                 </div>
                             </div>
 
@@ -7,7 +7,7 @@ import { CRMForm } from '../components/crm/CRMForm';
 import { CRMTable } from '../components/crm/CRMTable';
 import { FilterState, CRMEntry, CRMStatus } from '../types';
 import { Plus } from 'lucide-react';
-import { crmApi, usersApi } from '../services/api';
+import { crmApi, usersApi, liveEventsApi } from '../services/api';
 import { useAuth } from '../context/AuthContext';
 import { useToast } from '../context/ToastContext';
 import { useLayout } from '../context/LayoutContext';
@@ -54,6 +54,8 @@ export const CRMPage: React.FC = () => {
     return () => { mounted = false; };
   }, []);
 
+  useEffect(() => liveEventsApi.subscribe(['CRM'], () => fetchData()), []);
+
   const filteredData = useMemo(() => {
     return entries.filter(item => {
       const matchesSearch = filters.search === '' || 
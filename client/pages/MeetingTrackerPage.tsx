@@ -2,7 +2,7 @@
 import React, { useState, useEffect, useMemo } from 'react';
 import { Navbar } from '../components/layout/Navbar';
 import { Sidebar } from '../components/layout/Sidebar';
-import { meetingsApi } from '../services/api';
+import { meetingsApi, liveEventsApi } from '../services/api';
 import { Meeting, MeetingStatus } from '../types';
 import { MeetingTable } from '../components/meetings/MeetingTable';
 import { MeetingForm } from '../components/meetings/MeetingForm';
@@ -50,6 +50,8 @@ export const MeetingTrackerPage: React.FC = () => {
     return () => { mounted = false; };
   }, []);
 
+  useEffect(() => liveEventsApi.subscribe(['MEETING'], () => fetchData()), []);
+
   const { activeMeetings, historyMeetings } = useMemo(() => {
       const baseFiltered = meetings.filter(m => {
           const matchesSearch = m.title.toLowerCase().includes(search.toLowerCase());
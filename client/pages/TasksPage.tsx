@@ -2,7 +2,7 @@
 import React, { useState, useEffect, useMemo } from 'react';
 import { Navbar } from '../components/layout/Navbar';
 import { Sidebar } from '../components/layout/Sidebar';
-import { tasksApi, crmApi, usersApi } from '../services/api';
+import { tasksApi, crmApi, usersApi, liveEventsApi } from '../services/api';
 import { Task, TaskFilterState, TaskPriority, TaskStatus } from '../types';
 import { TasksTable } from '../components/tasks/TasksTable';
 import { TasksKanban } from '../components/tasks/TasksKanban';
@@ -82,6 +82,12 @@ export const TasksPage: React.FC = () => {
 
   useEffect(() => { fetchActiveData(); }, []);
 
+  // Refresh when someone else changes a task; /all responses revalidate cheaply via ETag
+  useEffect(() => liveEventsApi.subscribe(['TASK'], () => {
+    fetchActiveData();
+    if (completedLoaded) fetchCompletedData(true);
+  }), [completedLoaded]);
+
   // Load completed tasks when Kanban view is selected
   useEffect(() => {
     if (viewMode === 'kanban' && !completedLoaded) {
@@ -1,5 +1,5 @@
 import axios from 'axios';
-import { CRMEntry, Task, Meeting, AuthResponse, User, ForgotPasswordRequest, VerifyOtpRequest, ChangePasswordRequest, UpdatePasswordRequest, ApiResponse, RegisterRequest } from '../types';
+import { CRMEntry, CRMAnalytics, AssigneeStats, ChangeEvent, LiveEntity, Task, Meeting, AuthResponse, User, ForgotPasswordRequest, VerifyOtpRequest, ChangePasswordRequest, UpdatePasswordRequest, ApiResponse, RegisterRequest } from '../types';
 
 // ============================================================================
 // ⚙️ API CONFIGURATION
@@ -124,6 +124,13 @@ export const crmApi = {
     } catch (error) { throw handleApiError(error); }
   },
 
+  getAnalytics: async (from?: string, to?: string): Promise<CRMAnalytics> => {
+    try {
+        const res = await api.get("/crm/analytics", { params: { from, to } });
+        return res.data;
+    } catch (error) { throw handleApiError(error); }
+  },
+
   getMyCrm: async (): Promise<CRMEntry> => {
     try {
         const res = await api.get("/crm/my-crm");
@@ -284,6 +291,13 @@ export const tasksApi = {
     } catch (error) { throw handleApiError(error); }
   },
 
+  getAssigneeStats: async (from?: string, to?: string): Promise<AssigneeStats[]> => {
+    try {
+        const res = await api.get("/tasks/stats/assignees", { params: { from, to } });
+        return res.data;
+    } catch (error) { throw handleApiError(error); }
+  },
+
   create: async (data: Omit<Task, 'id' | 'createdAt'>): Promise<Task> => {
     try {
         const payload = cleanPayload(data);
@@ -397,3 +411,84 @@ export const authApi = {
     } catch (error) { throw handleApiError(error); }
   }
 };
+
+// ============================================================================
+// 📡 LIVE EVENTS (SSE)
+// ============================================================================
+// EventSource cannot send the Authorization header, so the stream is read with fetch.
+// One connection per tab is shared by every subscribed page and closed when the last one leaves.
+
+type LiveListener = { entities: LiveEntity[]; onChange: (event: ChangeEvent | null) => void };
+
+const liveListeners = new Set<LiveListener>();
+let liveAbort: AbortController | null = null;
+
+const notifyLive = (event: ChangeEvent | null) => {
+  // null means the server dropped our backlog (resync) or we reconnected: refetch everything
+  liveListeners.forEach(l => { if (!event || l.entities.includes(event.entity)) l.onChange(event); });
+};
+
+const runLiveStream = async (controller: AbortController) => {
+  let attempt = 0;
+  while (!controller.signal.aborted) {
+    try {
+      const token = localStorage.getItem("token");
+      const res = await fetch(`${API_URL}/events/stream`, {
+        headers: { Accept: 'text/event-stream', ...(token ? { Authorization: `Bearer ${token}` } : {}) },
+        signal: controller.signal,
+      });
+      if (res.status === 401 || res.status === 403) return; // Not signed in; the next subscribe retries
+      if (!res.ok || !res.body) throw new Error(`Event stream failed: ${res.status}`);
+      if (attempt > 0) notifyLive(null); // Catch up on anything missed while disconnected
+      attempt = 0;
+
+      const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += value;
+        let split;
+        while ((split = buffer.indexOf('\n\n')) >= 0) {
+          const frame = buffer.slice(0, split);
+          buffer = buffer.slice(split + 2);
+          const name = frame.match(/^event:(.*)$/m)?.[1]?.trim();
+          const data = frame.match(/^data:(.*)$/m)?.[1];
+          if (name === 'change' && data) notifyLive(JSON.parse(data) as ChangeEvent);
+          else if (name === 'resync') notifyLive(null);
+        }
+      }
+    } catch (e) {
+      if (controller.signal.aborted) return;
+    }
+    attempt++;
+    await new Promise(resolve => setTimeout(resolve, Math.min(30000, 1000 * 2 ** Math.min(attempt, 5))));
+  }
+};
+
+export const liveEventsApi = {
+  /** Calls onChange (debounced) when another user changes one of the given entities; returns an unsubscribe function. */
+  subscribe: (entities: LiveEntity[], onChange: () => void, debounceMs = 500): (() => void) => {
+    let timer: ReturnType<typeof setTimeout> | undefined;
+    const listener: LiveListener = {
+      entities,
+      onChange: () => {
+        if (timer) clearTimeout(timer);
+        timer = setTimeout(onChange, debounceMs);
+      },
+    };
+    liveListeners.add(listener);
+    if (!liveAbort) {
+      liveAbort = new AbortController();
+      runLiveStream(liveAbort);
+    }
+    return () => {
+      if (timer) clearTimeout(timer);
+      liveListeners.delete(listener);
+      if (liveListeners.size === 0 && liveAbort) {
+        liveAbort.abort();
+        liveAbort = null;
+      }
+    };
+  },
+};
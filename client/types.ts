@@ -91,6 +91,48 @@ export interface CRMEntry {
   referenceId?: string; 
 }
 
+export interface AnalyticsBucket {
+  key: string;
+  count: number;
+  dealValue: number;
+}
+
+export interface CRMAnalytics {
+  from?: string;
+  to?: string;
+  totalEntries: number;
+  totalDealValue: number;
+  wonDeals: number;
+  wonDealValue: number;
+  conversionRate: number;
+  averageDealValue: number;
+  byStatus: AnalyticsBucket[];
+  byLeadSource: AnalyticsBucket[];
+  byAssignee: AnalyticsBucket[];
+  byMonth: AnalyticsBucket[];
+}
+
+export interface AssigneeStats {
+  assigneeEmail: string;
+  assigneeName: string;
+  total: number;
+  completed: number;
+  inProgress: number;
+  pending: number;
+  overdue: number;
+  averageCompletionHours: number | null;
+  completionRate: number;
+}
+
+export type LiveEntity = 'TASK' | 'CRM' | 'MEETING';
+
+export interface ChangeEvent {
+  entity: LiveEntity;
+  id: number;
+  op: 'CREATED' | 'UPDATED' | 'DELETED';
+  version: number;
+}
+
 export interface FilterState {
   status: string;
   assignedTo: string;
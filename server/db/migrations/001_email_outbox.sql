@@ -0,0 +1,17 @@
+-- Email outbox for after-commit delivery of task assignment emails (EmailOutbox entity).
+-- Production runs with ddl-auto=validate, so apply this before deploying.
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id              BIGSERIAL PRIMARY KEY,
+    type            VARCHAR(50)   NOT NULL,
+    recipient       VARCHAR(255)  NOT NULL,
+    task_id         BIGINT,
+    assigned_by     VARCHAR(255),
+    status          VARCHAR(20)   NOT NULL DEFAULT 'PENDING',
+    attempts        INTEGER       NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP     NOT NULL,
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP     NOT NULL,
+    sent_at         TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due ON email_outbox (status, next_attempt_at);
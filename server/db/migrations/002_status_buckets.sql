@@ -0,0 +1,23 @@
+-- Normalized status buckets so status filters can use an index instead of LOWER(status).
+-- Entities keep the column in sync on every write; this file is the only backfill for older rows.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS status_bucket VARCHAR(20);
+ALTER TABLE crm_entries ADD COLUMN IF NOT EXISTS status_bucket VARCHAR(20);
+
+UPDATE tasks
+SET status_bucket = CASE
+    WHEN LOWER(TRIM(status)) IN ('completed', 'done', 'posted') THEN 'COMPLETED'
+    ELSE 'ACTIVE'
+END
+WHERE status_bucket IS NULL;
+
+UPDATE crm_entries
+SET status_bucket = CASE
+    WHEN LOWER(TRIM(status)) IN ('onboarded', 'on progress', 'quote sent') THEN 'ONBOARDED'
+    WHEN LOWER(TRIM(status)) = 'completed' THEN 'COMPLETED'
+    WHEN LOWER(TRIM(status)) = 'drop' THEN 'DROPPED'
+    ELSE 'OTHER'
+END
+WHERE status_bucket IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_task_status_bucket ON tasks (status_bucket);
+CREATE INDEX IF NOT EXISTS idx_crm_status_bucket ON crm_entries (status_bucket);
@@ -0,0 +1,30 @@
+-- Full-text and fuzzy search for /api/v1/search.
+-- Generated tsvector columns are maintained by PostgreSQL, so entities never map them and
+-- ddl-auto=validate is unaffected. SearchRepository only uses the full-text path once these exist.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE crm_entries ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(company, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(contact_name, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(notes, '')), 'C')
+) STORED;
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'C')
+) STORED;
+
+ALTER TABLE meetings ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(notes, '')), 'C')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_crm_search_vector ON crm_entries USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_task_search_vector ON tasks USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_meeting_search_vector ON meetings USING GIN (search_vector);
+
+-- Trigram indexes back the typo-tolerant `%` match on short name/title fields
+CREATE INDEX IF NOT EXISTS idx_crm_company_trgm ON crm_entries USING GIN (company gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_crm_contact_name_trgm ON crm_entries USING GIN (contact_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_task_title_trgm ON tasks USING GIN (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_meeting_title_trgm ON meetings USING GIN (title gin_trgm_ops);
@@ -0,0 +1,3 @@
+-- users.updated_at feeds the /api/v1/users/all ETag (see CollectionVersion).
+ALTER TABLE users ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+UPDATE users SET updated_at = created_at WHERE updated_at IS NULL;
@@ -0,0 +1,16 @@
+-- Delta sync (/tasks/changes, /crm/changes, /meetings/changes): tombstones for deletes and
+-- (last_updated_at, id) keyset indexes. Rows without last_updated_at would never be synced.
+CREATE TABLE IF NOT EXISTS tombstones (
+    id          BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id   BIGINT      NOT NULL,
+    deleted_at  TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_tombstone_type_deleted_at ON tombstones (entity_type, deleted_at, id);
+CREATE INDEX IF NOT EXISTS idx_crm_last_updated_at ON crm_entries (last_updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_meeting_last_updated_at ON meetings (last_updated_at, id);
+
+UPDATE tasks SET last_updated_at = COALESCE(created_at, NOW()) WHERE last_updated_at IS NULL;
+UPDATE meetings SET last_updated_at = COALESCE(created_at, NOW()) WHERE last_updated_at IS NULL;
+UPDATE crm_entries SET last_updated_at = NOW() WHERE last_updated_at IS NULL;
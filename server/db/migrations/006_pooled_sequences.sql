@@ -0,0 +1,34 @@
+-- Task, TaskAssignee and EmailOutbox ids now come from their sequences with Hibernate's pooled
+-- optimizer (allocationSize = 100) so bulk inserts can be JDBC-batched. Hibernate validates that
+-- each sequence increments by the allocation size, so apply this before deploying.
+-- Works for both BIGSERIAL and identity columns; the column defaults keep working for manual inserts.
+DO $$
+DECLARE
+    tbl      TEXT;
+    seq      TEXT;
+    expected TEXT;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY['tasks', 'task_assignees', 'email_outbox'] LOOP
+        expected := tbl || '_id_seq';
+        seq := pg_get_serial_sequence(tbl, 'id');
+        IF seq IS NULL THEN
+            EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 100', expected);
+            -- Pooled treats each value as the top of its block, so start one block above MAX(id)
+            EXECUTE format('SELECT setval(%L, COALESCE((SELECT MAX(id) FROM %I), 0) + 100, false)', expected, tbl);
+            CONTINUE;
+        END IF;
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = tbl
+                     AND column_name = 'id' AND is_identity = 'YES') THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET INCREMENT BY 100', tbl);
+        ELSE
+            EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 100', seq);
+        END IF;
+        IF seq <> expected AND seq <> current_schema() || '.' || expected THEN
+            EXECUTE format('ALTER SEQUENCE %s RENAME TO %I', seq, expected);
+        END IF;
+    END LOOP;
+END $$;
+
+-- Coalesced assignment emails from the bulk task endpoints (EmailOutbox.TYPE_TASK_ASSIGNMENT_BATCH)
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS task_ids TEXT;
@@ -0,0 +1,5 @@
+-- Per-recipient digests (EmailOutboxDispatcher): merged entries point at the digest that sent them.
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS merged_into BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_recipient ON email_outbox (recipient, status);
+CREATE INDEX IF NOT EXISTS idx_email_outbox_merged_into ON email_outbox (merged_into);
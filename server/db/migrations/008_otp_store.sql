@@ -0,0 +1,5 @@
+-- OTP attempt counter (OtpStore) and indexes for the per-email lookup and the chunked expiry sweep.
+ALTER TABLE otps ADD COLUMN IF NOT EXISTS attempts INTEGER NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_otps_email ON otps (email);
+CREATE INDEX IF NOT EXISTS idx_otps_expires_at ON otps (expires_at);
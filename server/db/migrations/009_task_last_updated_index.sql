@@ -0,0 +1,3 @@
+-- Keyset paging on GET /api/v1/tasks/page (default sort) and task delta sync order by
+-- (last_updated_at, id). The index is declared on Task but ddl-auto=validate never creates it.
+CREATE INDEX IF NOT EXISTS idx_task_last_updated_at ON tasks (last_updated_at, id);
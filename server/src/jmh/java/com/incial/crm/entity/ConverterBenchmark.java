@@ -0,0 +1,59 @@
+package com.incial.crm.entity;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON column round trips for the list and map attribute converters used by CrmEntry and Task.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    private final StringListConverter listConverter = new StringListConverter();
+    private final StringMapConverter mapConverter = new StringMapConverter();
+
+    private List<String> tags;
+    private Map<String, String> socials;
+    private String tagsJson;
+    private String socialsJson;
+
+    @Setup
+    public void setUp() {
+        tags = List.of("Branding", "Social Media", "Website", "SEO", "Performance Marketing");
+        socials = new LinkedHashMap<>();
+        socials.put("instagram", "https://instagram.com/acme.studios");
+        socials.put("linkedin", "https://linkedin.com/company/acme-studios");
+        socials.put("website", "https://acme.example.com");
+        tagsJson = listConverter.convertToDatabaseColumn(tags);
+        socialsJson = mapConverter.convertToDatabaseColumn(socials);
+    }
+
+    @Benchmark
+    public List<String> listRoundTrip() {
+        return listConverter.convertToEntityAttribute(listConverter.convertToDatabaseColumn(tags));
+    }
+
+    @Benchmark
+    public List<String> listRead() {
+        return listConverter.convertToEntityAttribute(tagsJson);
+    }
+
+    @Benchmark
+    public Map<String, String> mapRoundTrip() {
+        return mapConverter.convertToEntityAttribute(mapConverter.convertToDatabaseColumn(socials));
+    }
+
+    @Benchmark
+    public Map<String, String> mapRead() {
+        return mapConverter.convertToEntityAttribute(socialsJson);
+    }
+}
@@ -0,0 +1,57 @@
+package com.incial.crm.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification through {@link JwtUtil}, with and without the verified-token cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    static final String SECRET = Base64.getEncoder().encodeToString(
+            "benchmark-secret-key-that-is-long-enough-for-hs256".getBytes());
+
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtUtil = newJwtUtil(true);
+        uncachedJwtUtil = newJwtUtil(false);
+        token = cachedJwtUtil.generateToken("jane.doe@incial.com", "ROLE_EMPLOYEE");
+    }
+
+    static JwtUtil newJwtUtil(boolean cacheEnabled) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtUtil jwtUtil = new JwtUtil(new JwtTokenCache(cacheEnabled, 10_000, meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(jwtUtil, "secretString", SECRET);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedJwtUtil.generateToken("jane.doe@incial.com", "ROLE_EMPLOYEE");
+    }
+
+    @Benchmark
+    public Object verifyUncached() {
+        return uncachedJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public Object verifyCached() {
+        return cachedJwtUtil.verify(token);
+    }
+}
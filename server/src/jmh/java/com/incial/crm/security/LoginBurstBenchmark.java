@@ -0,0 +1,178 @@
+package com.incial.crm.security;
+
+import com.incial.crm.config.SecurityConfig;
+import com.incial.crm.dto.LoginRequest;
+import com.incial.crm.entity.User;
+import com.incial.crm.repository.UserRepository;
+import com.incial.crm.service.AuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a cheap API request while 200 logins arrive at once, repeated for the whole
+ * iteration. The "tomcat" pool has the production 50 workers, and logins go through the real
+ * authentication path: DaoAuthenticationProvider with the SecurityConfig encoder, then a JWT.
+ * With {@code request-thread} each worker authenticates inline, as the controller used to, and
+ * API requests queue behind the burst; with {@code hashing-pool} workers call
+ * {@link AuthService#login}, which hands the work to {@link PasswordHashing}, and API latency
+ * should stay close to the {@code none} baseline. Compare the p99/p999 lines of the SampleTime
+ * output.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginBurstBenchmark {
+
+    private static final int TOMCAT_THREADS = 50;
+    private static final int BURST = 200;
+    private static final String EMAIL = "jane.doe@incial.com";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"none", "request-thread", "hashing-pool"})
+    public String logins;
+
+    private ThreadPoolExecutor tomcat;
+    private PasswordHashing passwordHashing;
+    private AuthenticationManager authenticationManager;
+    private JwtUtil jwtUtil;
+    private AuthService authService;
+    private Thread burstDriver;
+    private volatile boolean bursting;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tomcat = new ThreadPoolExecutor(TOMCAT_THREADS, TOMCAT_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+        // Queue sized to the burst so the comparison is about latency, not 503s
+        passwordHashing = new PasswordHashing(0, BURST, new SimpleMeterRegistry());
+
+        // Fixed production-like cost instead of calibrating on the benchmark machine
+        PasswordEncoder encoder = new SecurityConfig(null).passwordEncoder(10, 0, 10, 10);
+        User user = User.builder()
+                .id(1L)
+                .name("Jane Doe")
+                .email(EMAIL)
+                .passwordHash(encoder.encode(PASSWORD))
+                .role("ROLE_EMPLOYEE")
+                .build();
+        UserRepository userRepository = userRepository(user);
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsService(email -> new CustomUserDetails(user));
+        authenticationManager = new ProviderManager(provider);
+        jwtUtil = JwtBenchmark.newJwtUtil(true);
+
+        // Only the collaborators login touches; OTP, user cache and Google sign-in are unused here
+        authService = new AuthService(userRepository, jwtUtil, authenticationManager,
+                encoder, null, null, null, passwordHashing);
+    }
+
+    // findByEmail is the only repository call on the login path
+    private static UserRepository userRepository(User user) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if ("findByEmail".equals(method.getName())) {
+                        return Optional.of(user);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Setup(Level.Iteration)
+    public void startBursts() {
+        if ("none".equals(logins)) {
+            return;
+        }
+        bursting = true;
+        burstDriver = new Thread(() -> {
+            while (bursting) {
+                runBurst();
+            }
+        }, "login-burst");
+        burstDriver.setDaemon(true);
+        burstDriver.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopBursts() throws InterruptedException {
+        bursting = false;
+        if (burstDriver != null) {
+            burstDriver.join();
+            burstDriver = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        tomcat.shutdownNow();
+        passwordHashing.shutdown();
+    }
+
+    @Benchmark
+    public Object apiRequest() throws ExecutionException, InterruptedException {
+        return tomcat.submit(LoginBurstBenchmark::listTasks).get();
+    }
+
+    // Stands in for a cached read: a little CPU, no I/O
+    private static String listTasks() {
+        StringBuilder body = new StringBuilder(512);
+        for (int i = 0; i < 20; i++) {
+            body.append("{\"id\":").append(i).append(",\"title\":\"Task ").append(i).append("\"},");
+        }
+        return body.toString();
+    }
+
+    private static LoginRequest loginRequest() {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(EMAIL);
+        request.setPassword(PASSWORD);
+        return request;
+    }
+
+    private void runBurst() {
+        List<Future<?>> inFlight = new ArrayList<>(BURST);
+        for (int i = 0; i < BURST; i++) {
+            Callable<Object> login = "request-thread".equals(logins)
+                    ? () -> {
+                        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, PASSWORD));
+                        return jwtUtil.generateToken(EMAIL, "ROLE_EMPLOYEE");
+                    }
+                    // The worker returns as soon as the login is queued, like the async controller
+                    : () -> authService.login(loginRequest());
+            inFlight.add(tomcat.submit(login));
+        }
+        try {
+            for (Future<?> login : inFlight) {
+                Object result = login.get();
+                if (result instanceof Future<?> hashing) {
+                    hashing.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            bursting = false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
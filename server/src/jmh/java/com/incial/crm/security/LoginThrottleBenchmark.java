@@ -0,0 +1,58 @@
+package com.incial.crm.security;
+
+import com.incial.crm.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost {@link LoginThrottle#acquire} adds to an auth request, with 8 threads spread over
+ * {@code clients} distinct IPs and emails. {@code limited=true} uses the production limits, so
+ * most calls on a small client set are rejected (exception path); {@code false} sets limits high
+ * enough that every call is allowed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginThrottleBenchmark {
+
+    @Param({"16", "100000"})
+    public int clients;
+
+    @Param({"false", "true"})
+    public boolean limited;
+
+    private LoginThrottle throttle;
+    private String[] ips;
+    private String[] emails;
+
+    @Setup
+    public void setUp() {
+        int perMinute = limited ? 20 : Integer.MAX_VALUE / 2;
+        throttle = new LoginThrottle(true, 100_000, perMinute, limited ? 5 : perMinute, 5, 2, 10, 5,
+                new SimpleMeterRegistry());
+        ips = new String[clients];
+        emails = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            ips[i] = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+            emails[i] = "user" + i + "@incial.com";
+        }
+    }
+
+    @Benchmark
+    public boolean login() {
+        int client = ThreadLocalRandom.current().nextInt(clients);
+        try {
+            throttle.acquire(LoginThrottle.Endpoint.LOGIN, ips[client], emails[client]);
+            return true;
+        } catch (TooManyRequestsException e) {
+            return false;
+        }
+    }
+}
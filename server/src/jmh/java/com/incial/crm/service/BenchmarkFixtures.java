@@ -0,0 +1,105 @@
+package com.incial.crm.service;
+
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.entity.Task;
+import com.incial.crm.entity.TaskAssignee;
+
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entity graphs sized like production rows, shared by the service benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static Task task() {
+        LocalDateTime now = LocalDateTime.of(2024, 3, 18, 10, 30);
+        Task task = Task.builder()
+                .id(4812L)
+                .title("Quarterly brand refresh: landing page and social kit")
+                .description(("Refresh the landing page hero, update the brand colours in the social kit and "
+                        + "prepare three carousel variants for review. Coordinate with the client on copy "
+                        + "sign-off before Thursday. ").repeat(6))
+                .status("In Progress")
+                .priority("High")
+                .assignedTo("jane.doe@incial.com")
+                .dueDate(LocalDate.of(2024, 3, 29))
+                .companyId(317L)
+                .taskType("Design")
+                .attachments(List.of(
+                        "https://drive.google.com/file/d/1a2b3c/hero-v3.fig",
+                        "https://drive.google.com/file/d/4d5e6f/social-kit.zip",
+                        "https://drive.google.com/file/d/7g8h9i/brief.pdf"))
+                .taskLink("https://www.figma.com/file/abc123/Brand-Refresh")
+                .isVisibleOnMainBoard(true)
+                .createdAt(now.minusDays(9))
+                .lastUpdatedBy("Priya Nair")
+                .lastUpdatedAt(now)
+                .build();
+        List<TaskAssignee> assignees = new ArrayList<>();
+        for (String email : List.of("jane.doe@incial.com", "arjun.menon@incial.com", "priya.nair@incial.com")) {
+            assignees.add(TaskAssignee.builder()
+                    .task(task)
+                    .assigneeEmail(email)
+                    .assigneeName(email.substring(0, email.indexOf('@')))
+                    .assignedAt(now.minusDays(9))
+                    .build());
+        }
+        task.setAssignees(assignees);
+        return task;
+    }
+
+    static CrmEntry crmEntry() {
+        Map<String, String> socials = new LinkedHashMap<>();
+        socials.put("instagram", "https://instagram.com/acme.studios");
+        socials.put("linkedin", "https://linkedin.com/company/acme-studios");
+        socials.put("website", "https://acme.example.com");
+        return CrmEntry.builder()
+                .id(317L)
+                .company("Acme Studios Pvt Ltd")
+                .contactName("Rahul Varma")
+                .email("rahul@acme.example.com")
+                .phone("+91 98470 12345")
+                .address("2nd Floor, Carnival Infopark, Kochi")
+                .companyImageUrl("https://res.cloudinary.com/incial/image/upload/acme.png")
+                .status("onboarded")
+                .dealValue(new BigDecimal("185000.00"))
+                .assignedTo("jane.doe@incial.com")
+                .nextFollowUp(LocalDate.of(2024, 4, 2))
+                .lastContact(LocalDate.of(2024, 3, 15))
+                .referenceId("INC-2024-0317")
+                .notes(("Call went well; they want the retainer to include monthly reels and a quarterly "
+                        + "campaign. Send revised proposal with the performance marketing add-on. ").repeat(5))
+                .tags(List.of("Branding", "Social Media", "Retainer"))
+                .work(List.of("Website", "SEO", "Performance Marketing", "Content"))
+                .leadSources(List.of("Referral", "Instagram"))
+                .driveLink("https://drive.google.com/drive/folders/acme")
+                .socials(socials)
+                .lastUpdatedBy("Jane Doe")
+                .lastUpdatedAt(LocalDateTime.of(2024, 3, 18, 10, 30))
+                .build();
+    }
+
+    /**
+     * Builds a service with every collaborator null. Only suitable for methods that touch no
+     * collaborators, and keeps the benchmarks compiling as constructor dependencies change.
+     */
+    static <T> T serviceWithoutCollaborators(Class<T> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructors()[0];
+            constructor.setAccessible(true);
+            return type.cast(constructor.newInstance(new Object[constructor.getParameterCount()]));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not instantiate " + type.getName(), e);
+        }
+    }
+}
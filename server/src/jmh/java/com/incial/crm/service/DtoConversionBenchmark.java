@@ -0,0 +1,44 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.CrmEntryDto;
+import com.incial.crm.dto.TaskDto;
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.entity.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping as run once per row by the list, page, export and /changes endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoConversionBenchmark {
+
+    private TaskService taskService;
+    private CrmService crmService;
+    private Task task;
+    private CrmEntry crmEntry;
+
+    @Setup
+    public void setUp() {
+        taskService = BenchmarkFixtures.serviceWithoutCollaborators(TaskService.class);
+        crmService = BenchmarkFixtures.serviceWithoutCollaborators(CrmService.class);
+        task = BenchmarkFixtures.task();
+        crmEntry = BenchmarkFixtures.crmEntry();
+    }
+
+    @Benchmark
+    public TaskDto taskToDto() {
+        return taskService.convertToDto(task);
+    }
+
+    @Benchmark
+    public CrmEntryDto crmEntryToDto() {
+        return crmService.convertToDto(crmEntry);
+    }
+}
@@ -0,0 +1,49 @@
+package com.incial.crm.service;
+
+import com.incial.crm.entity.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the task-assignment email, which runs once per assignee on every assignment.
+ * {@code legacyHtml} is the String.formatted renderer that {@link EmailTemplates} replaced;
+ * {@code templatedHtml} renders the same part, {@code templatedHtmlAndText} both parts as sent.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailTemplateBenchmark {
+
+    private LegacyEmailTemplates legacy;
+    private EmailTemplates emailTemplates;
+    private EmailService emailService;
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        legacy = new LegacyEmailTemplates();
+        emailTemplates = new EmailTemplates();
+        emailService = new EmailService(null, null, emailTemplates);
+        task = BenchmarkFixtures.task();
+    }
+
+    @Benchmark
+    public String legacyHtml() {
+        return legacy.buildHtmlTaskAssignmentTemplate(task, "Priya Nair", "jane.doe@incial.com");
+    }
+
+    @Benchmark
+    public String templatedHtml() {
+        return emailTemplates.render(EmailTemplates.Name.TASK_ASSIGNMENT, EmailTemplates.Format.HTML, null,
+                emailService.taskAssignmentValues(task, "Priya Nair", "jane.doe@incial.com"));
+    }
+
+    @Benchmark
+    public EmailTemplates.Rendered templatedHtmlAndText() {
+        return emailService.renderTaskAssignment(task, "Priya Nair", "jane.doe@incial.com");
+    }
+}
@@ -0,0 +1,82 @@
+package com.incial.crm.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * Decides whether read-only transactions may use the replica. Every
+ * {@code datasource.replica.lag-check-ms} it runs {@code lag-query} on the replica, which
+ * returns the replay lag in seconds. The replica is used only while the lag is within
+ * {@code max-lag-ms}. If the probe fails, or before the first probe succeeds, reads stay
+ * on the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final int PROBE_TIMEOUT_SECONDS = 2;
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+
+    private volatile boolean usable;
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, Duration checkInterval,
+                             MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        meterRegistry.gauge("datasource.replica.lag", Collections.emptyList(), this, monitor -> monitor.lagMillis);
+        meterRegistry.gauge("datasource.replica.usable", Collections.emptyList(), this, monitor -> monitor.usable ? 1 : 0);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-ms:5000}")
+    public void probe() {
+        boolean wasUsable = usable;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(PROBE_TIMEOUT_SECONDS);
+            try (ResultSet result = statement.executeQuery(lagQuery)) {
+                result.next();
+                lagMillis = Math.round(result.getDouble(1) * 1000);
+            }
+            usable = lagMillis <= maxLag.toMillis();
+            if (wasUsable && !usable) {
+                log.warn("Replica is {} ms behind (max {} ms); reading from the primary", lagMillis, maxLag.toMillis());
+            }
+        } catch (SQLException | RuntimeException e) {
+            usable = false;
+            lagMillis = -1;
+            if (wasUsable) {
+                log.warn("Replica lag probe failed; reading from the primary: {}", e.getMessage());
+            }
+        }
+        if (usable && !wasUsable) {
+            log.info("Replica is {} ms behind; read-only transactions use it", lagMillis);
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    /**
+     * How far a replica read may trail a commit on the primary: the lag allowed, plus the time
+     * the lag may have grown since the last probe.
+     */
+    public Duration staleReadWindow() {
+        return maxLag.plus(checkInterval);
+    }
+}
@@ -1,7 +1,10 @@
 package com.incial.crm.controller;
 
 import com.incial.crm.dto.*;
+import com.incial.crm.security.LoginThrottle;
+import com.incial.crm.security.LoginThrottle.Endpoint;
 import com.incial.crm.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,6 +12,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -17,17 +22,19 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginThrottle loginThrottle;
 
     @PostMapping("/register")
-    public ResponseEntity<RegisterResponse> register(@Valid @RequestBody RegisterRequest request) {
-        RegisterResponse response = authService.register(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public CompletableFuture<ResponseEntity<RegisterResponse>> register(@Valid @RequestBody RegisterRequest request) {
+        return authService.register(request)
+                .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
-        LoginResponse response = authService.login(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@Valid @RequestBody LoginRequest request,
+                                                                 HttpServletRequest servletRequest) {
+        loginThrottle.acquire(Endpoint.LOGIN, servletRequest.getRemoteAddr(), request.getEmail());
+        return authService.login(request).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/google-login")
@@ -38,20 +45,25 @@ public class AuthController {
     }
 
     @PostMapping("/forgot-password")
-    public ResponseEntity<ApiResponse> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request) {
+    public ResponseEntity<ApiResponse> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request,
+                                                      HttpServletRequest servletRequest) {
+        loginThrottle.acquire(Endpoint.FORGOT_PASSWORD, servletRequest.getRemoteAddr(), request.getEmail());
         ApiResponse response = authService.forgotPassword(request);
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/verify-otp")
-    public ResponseEntity<ApiResponse> verifyOtp(@Valid @RequestBody VerifyOtpRequest request) {
+    public ResponseEntity<ApiResponse> verifyOtp(@Valid @RequestBody VerifyOtpRequest request,
+                                                 HttpServletRequest servletRequest) {
+        loginThrottle.acquire(Endpoint.OTP, servletRequest.getRemoteAddr(), request.getEmail());
         ApiResponse response = authService.verifyOtp(request);
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/change-password")
-    public ResponseEntity<ApiResponse> changePassword(@Valid @RequestBody ChangePasswordRequest request) {
-        ApiResponse response = authService.changePassword(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<ApiResponse>> changePassword(@Valid @RequestBody ChangePasswordRequest request,
+                                                                         HttpServletRequest servletRequest) {
+        loginThrottle.acquire(Endpoint.OTP, servletRequest.getRemoteAddr(), request.getEmail());
+        return authService.changePassword(request).thenApply(ResponseEntity::ok);
     }
 }
\ No newline at end of file
@@ -1,14 +1,26 @@
 package com.incial.crm.controller;
 
+import com.incial.crm.dto.ChangeSetDto;
+import com.incial.crm.dto.CrmAnalyticsDto;
 import com.incial.crm.dto.CrmEntryDto;
+import com.incial.crm.dto.Versioned;
 import com.incial.crm.service.CrmService;
+import com.incial.crm.service.ExportFormat;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -24,8 +36,38 @@ public class CrmController {
     @PreAuthorize(
             "hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_SUPER_ADMIN') or hasAuthority('ROLE_EMPLOYEE')"
     )
-    public ResponseEntity<Map<String, List<CrmEntryDto>>> getAllEntries() {
-        return ResponseEntity.ok(crmService.getAllEntries());
+    public ResponseEntity<Map<String, List<CrmEntryDto>>> getAllEntries(WebRequest webRequest) {
+        Versioned<Map<String, List<CrmEntryDto>>> entries = crmService.getAllEntries(webRequest::checkNotModified);
+        if (entries.notModified()) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(entries.etag()).cacheControl(CacheControl.noCache().cachePrivate())
+                .body(entries.body());
+    }
+
+    @GetMapping("/changes")
+    @PreAuthorize(
+            "hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_SUPER_ADMIN') or hasAuthority('ROLE_EMPLOYEE')"
+    )
+    public ResponseEntity<ChangeSetDto<CrmEntryDto>> getEntryChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(crmService.getChangesSince(since, limit));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize(
+            "hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_SUPER_ADMIN') or hasAuthority('ROLE_EMPLOYEE')"
+    )
+    public ResponseEntity<StreamingResponseBody> exportEntries(@RequestParam(required = false) String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        StreamingResponseBody body = out -> crmService.exportEntries(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("crm-entries-" + LocalDate.now() + "." + exportFormat.getExtension())
+                        .build().toString())
+                .body(body);
     }
 
     @GetMapping("/onboarded")
@@ -52,6 +94,14 @@ public class CrmController {
         return ResponseEntity.ok(crmService.getDroppedEntries());
     }
 
+    @GetMapping("/analytics")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_SUPER_ADMIN')")
+    public ResponseEntity<CrmAnalyticsDto> getAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(crmService.getAnalytics(from, to));
+    }
+
     @GetMapping("/details/{id}")
     @PreAuthorize(
             "hasAuthority('ROLE_ADMIN') or hasAuthority('ROLE_SUPER_ADMIN') or hasAuthority('ROLE_EMPLOYEE')"
@@ -0,0 +1,39 @@
+package com.incial.crm.controller;
+
+import com.incial.crm.service.LiveEventService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/events")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+@Slf4j
+public class EventController {
+
+    private final LiveEventService liveEventService;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    public ResponseEntity<SseEmitter> stream(Authentication authentication) {
+        String userEmail = authentication.getName();
+        log.info("GET /api/v1/events/stream - Opening live event stream for user: {}", userEmail);
+        return liveEventService.subscribe(userEmail)
+                .map(emitter -> ResponseEntity.ok()
+                        // Keep reverse proxies from buffering the stream
+                        .header("X-Accel-Buffering", "no")
+                        .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                        .body(emitter))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "30")
+                        .build());
+    }
+}
@@ -1,14 +1,18 @@
 package com.incial.crm.controller;
 
+import com.incial.crm.dto.ChangeSetDto;
 import com.incial.crm.dto.MeetingDto;
+import com.incial.crm.dto.Versioned;
 import com.incial.crm.service.MeetingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,18 +27,39 @@ public class MeetingController {
 
     @GetMapping("/all")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
-    public ResponseEntity<List<MeetingDto>> getAllMeetings() {
+    public ResponseEntity<List<MeetingDto>> getAllMeetings(WebRequest webRequest) {
         log.info("GET /api/v1/meetings/all - Retrieving all meetings");
         try {
-            List<MeetingDto> meetings = meetingService.getAllMeetings();
-            log.info("GET /api/v1/meetings/all - Successfully retrieved {} meetings", meetings.size());
-            return ResponseEntity.ok(meetings);
+            Versioned<List<MeetingDto>> meetings = meetingService.getAllMeetings(webRequest::checkNotModified);
+            if (meetings.notModified()) {
+                log.info("GET /api/v1/meetings/all - Not modified since {}", meetings.etag());
+                return null;
+            }
+            log.info("GET /api/v1/meetings/all - Successfully retrieved {} meetings", meetings.body().size());
+            return ResponseEntity.ok().eTag(meetings.etag()).cacheControl(CacheControl.noCache().cachePrivate()).body(meetings.body());
         } catch (Exception e) {
             log.error("GET /api/v1/meetings/all - Error retrieving all meetings", e);
             throw e;
         }
     }
 
+    @GetMapping("/changes")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    public ResponseEntity<ChangeSetDto<MeetingDto>> getMeetingChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/v1/meetings/changes - Retrieving meeting changes (cursor present: {})", since != null);
+        try {
+            ChangeSetDto<MeetingDto> changes = meetingService.getChangesSince(since, limit);
+            log.info("GET /api/v1/meetings/changes - {} upserts, {} deletes, hasMore: {}",
+                    changes.getUpserts().size(), changes.getDeletedIds().size(), changes.isHasMore());
+            return ResponseEntity.ok(changes);
+        } catch (Exception e) {
+            log.error("GET /api/v1/meetings/changes - Error retrieving meeting changes", e);
+            throw e;
+        }
+    }
+
     @GetMapping("/my-meetings")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
     public ResponseEntity<List<MeetingDto>> getMyMeetings(Authentication authentication) {
@@ -0,0 +1,40 @@
+package com.incial.crm.controller;
+
+import com.incial.crm.dto.SearchResultDto;
+import com.incial.crm.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+@Slf4j
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    public ResponseEntity<SearchResultDto> search(
+            @RequestParam String q,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        log.info("GET /api/v1/search - Searching for '{}' (types: {}, page: {}, size: {})", q, types, page, size);
+        try {
+            SearchResultDto result = searchService.search(q, types, page, size);
+            log.info("GET /api/v1/search - Returning {} hits (hasMore: {}, fullText: {})",
+                    result.getHits().size(), result.isHasMore(), result.isFullText());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("GET /api/v1/search - Error searching for '{}'", q, e);
+            throw e;
+        }
+    }
+}
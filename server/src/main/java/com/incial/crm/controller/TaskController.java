@@ -1,17 +1,32 @@
 package com.incial.crm.controller;
 
+import com.incial.crm.dto.AssigneeStatsDto;
+import com.incial.crm.dto.BulkTaskStatusRequest;
+import com.incial.crm.dto.ChangeSetDto;
+import com.incial.crm.dto.CursorPage;
 import com.incial.crm.dto.TaskDto;
+import com.incial.crm.dto.Versioned;
+import com.incial.crm.service.ExportFormat;
 import com.incial.crm.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -27,12 +42,16 @@ public class TaskController {
     @GetMapping("/all")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
     @Operation(summary = "Get all tasks", description = "Retrieve all tasks")
-    public ResponseEntity<List<TaskDto>> getAllTasks() {
+    public ResponseEntity<List<TaskDto>> getAllTasks(WebRequest webRequest) {
         log.info("GET /api/v1/tasks/all - Retrieving all tasks");
         try {
-            List<TaskDto> tasks = taskService.getAllTasks();
-            log.info("GET /api/v1/tasks/all - Successfully retrieved {} tasks", tasks.size());
-            return ResponseEntity.ok(tasks);
+            Versioned<List<TaskDto>> tasks = taskService.getAllTasks(webRequest::checkNotModified);
+            if (tasks.notModified()) {
+                log.info("GET /api/v1/tasks/all - Not modified since {}", tasks.etag());
+                return null;
+            }
+            log.info("GET /api/v1/tasks/all - Successfully retrieved {} tasks", tasks.body().size());
+            return ResponseEntity.ok().eTag(tasks.etag()).cacheControl(CacheControl.noCache().cachePrivate()).body(tasks.body());
         } catch (Exception e) {
             log.error("GET /api/v1/tasks/all - Error retrieving all tasks", e);
             throw e;
@@ -69,6 +88,89 @@ public class TaskController {
         }
     }
 
+    @GetMapping("/changes")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Task changes", description = "Tasks created, updated or deleted since an opaque sync cursor")
+    public ResponseEntity<ChangeSetDto<TaskDto>> getTaskChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/v1/tasks/changes - Retrieving task changes (cursor present: {})", since != null);
+        try {
+            ChangeSetDto<TaskDto> changes = taskService.getChangesSince(since, limit);
+            log.info("GET /api/v1/tasks/changes - {} upserts, {} deletes, hasMore: {}",
+                    changes.getUpserts().size(), changes.getDeletedIds().size(), changes.isHasMore());
+            return ResponseEntity.ok(changes);
+        } catch (Exception e) {
+            log.error("GET /api/v1/tasks/changes - Error retrieving task changes", e);
+            throw e;
+        }
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Export tasks", description = "Stream all tasks as NDJSON (default) or CSV")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(required = false) String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        log.info("GET /api/v1/tasks/export - Streaming all tasks as {}", exportFormat);
+        StreamingResponseBody body = out -> {
+            try {
+                long rows = taskService.exportTasks(exportFormat, out);
+                log.info("GET /api/v1/tasks/export - Successfully streamed {} tasks", rows);
+            } catch (Exception e) {
+                log.error("GET /api/v1/tasks/export - Error streaming tasks", e);
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("tasks-" + LocalDate.now() + "." + exportFormat.getExtension())
+                        .build().toString())
+                .body(body);
+    }
+
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Get a page of tasks", description = "Cursor-paginated task listing with optional status (active/completed), priority, company, assignee and due date filters. Sort by 'updated' (default) or 'due'")
+    public ResponseEntity<CursorPage<TaskDto>> getTaskPage(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) Long companyId,
+            @RequestParam(required = false) String assignee,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(required = false, defaultValue = "updated") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        log.info("GET /api/v1/tasks/page - Retrieving task page (status={}, sort={}, size={})", status, sort, size);
+        try {
+            CursorPage<TaskDto> page = taskService.getTaskPage(
+                    status, priority, companyId, assignee, dueFrom, dueTo, sort, cursor, size);
+            log.info("GET /api/v1/tasks/page - Successfully retrieved {} tasks, hasMore={}", page.getItems().size(), page.isHasMore());
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            log.error("GET /api/v1/tasks/page - Error retrieving task page", e);
+            throw e;
+        }
+    }
+
+    @GetMapping("/stats/assignees")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Get per-assignee statistics", description = "Totals, completed, overdue, average completion time and completion rate per assignee for tasks created in the optional window")
+    public ResponseEntity<List<AssigneeStatsDto>> getAssigneeStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET /api/v1/tasks/stats/assignees - Aggregating assignee statistics (from={}, to={})", from, to);
+        try {
+            List<AssigneeStatsDto> stats = taskService.getAssigneeStats(from, to);
+            log.info("GET /api/v1/tasks/stats/assignees - Successfully aggregated stats for {} assignees", stats.size());
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            log.error("GET /api/v1/tasks/stats/assignees - Error aggregating assignee statistics", e);
+            throw e;
+        }
+    }
+
     @GetMapping("/my-tasks")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
     @Operation(summary = "Get current user's tasks", description = "Retrieve tasks assigned to the current logged-in user")
@@ -132,6 +234,51 @@ public class TaskController {
         }
     }
 
+    @PostMapping("/bulk/create")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Create tasks in bulk", description = "Create up to 1000 tasks in one transaction; each assignee receives a single email listing their new tasks")
+    public ResponseEntity<List<TaskDto>> createTasks(@RequestBody List<TaskDto> dtos) {
+        log.info("POST /api/v1/tasks/bulk/create - Creating {} tasks", dtos != null ? dtos.size() : 0);
+        try {
+            List<TaskDto> created = taskService.createTasks(dtos);
+            log.info("POST /api/v1/tasks/bulk/create - Successfully created {} tasks", created.size());
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (Exception e) {
+            log.error("POST /api/v1/tasks/bulk/create - Error creating tasks", e);
+            throw e;
+        }
+    }
+
+    @PutMapping("/bulk/update")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Update tasks in bulk", description = "Apply partial updates to up to 1000 tasks; every task must include its id")
+    public ResponseEntity<List<TaskDto>> updateTasks(@RequestBody List<TaskDto> dtos) {
+        log.info("PUT /api/v1/tasks/bulk/update - Updating {} tasks", dtos != null ? dtos.size() : 0);
+        try {
+            List<TaskDto> updated = taskService.updateTasks(dtos);
+            log.info("PUT /api/v1/tasks/bulk/update - Successfully updated {} tasks", updated.size());
+            return ResponseEntity.ok(updated);
+        } catch (Exception e) {
+            log.error("PUT /api/v1/tasks/bulk/update - Error updating tasks", e);
+            throw e;
+        }
+    }
+
+    @PutMapping("/bulk/status")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
+    @Operation(summary = "Change task status in bulk", description = "Move up to 1000 tasks to one status (increments user counters for tasks that become completed)")
+    public ResponseEntity<List<TaskDto>> updateTaskStatuses(@Valid @RequestBody BulkTaskStatusRequest request) {
+        log.info("PUT /api/v1/tasks/bulk/status - Moving {} tasks to status: {}", request.getIds().size(), request.getStatus());
+        try {
+            List<TaskDto> updated = taskService.updateTaskStatuses(request.getIds(), request.getStatus());
+            log.info("PUT /api/v1/tasks/bulk/status - Successfully updated {} tasks", updated.size());
+            return ResponseEntity.ok(updated);
+        } catch (Exception e) {
+            log.error("PUT /api/v1/tasks/bulk/status - Error updating task statuses", e);
+            throw e;
+        }
+    }
+
     @DeleteMapping("/delete/{id}")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
     @Operation(summary = "Delete a task", description = "Delete a task by ID")
@@ -1,14 +1,17 @@
 package com.incial.crm.controller;
 
 import com.incial.crm.dto.UserDto;
+import com.incial.crm.dto.Versioned;
 import com.incial.crm.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,8 +27,13 @@ public class UserController {
     @GetMapping("/all")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN','ROLE_EMPLOYEE', 'ROLE_SUPER_ADMIN')")
     @Operation(summary = "Get all users", description = "Retrieve all users (Admin and Super Admin only)")
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<List<UserDto>> getAllUsers(WebRequest webRequest) {
+        Versioned<List<UserDto>> users = userService.getAllUsers(webRequest::checkNotModified);
+        if (users.notModified()) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(users.etag()).cacheControl(CacheControl.noCache().cachePrivate())
+                .body(users.body());
     }
 
     @GetMapping("/me")
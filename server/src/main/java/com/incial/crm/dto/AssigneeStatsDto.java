@@ -0,0 +1,22 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssigneeStatsDto {
+    private String assigneeEmail;
+    private String assigneeName;
+    private long total;
+    private long completed;
+    private long inProgress; // In Progress or In Review
+    private long pending; // Not Started
+    private long overdue; // Not completed and past due date
+    private Double averageCompletionHours; // createdAt -> lastUpdatedAt of completed tasks; null if none
+    private double completionRate; // Percentage of total
+}
@@ -0,0 +1,22 @@
+package com.incial.crm.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskStatusRequest {
+    @NotEmpty(message = "At least one task id is required")
+    private List<Long> ids;
+
+    @NotBlank(message = "Status is required")
+    private String status;
+}
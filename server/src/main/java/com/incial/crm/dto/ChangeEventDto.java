@@ -0,0 +1,17 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventDto {
+    private String entity; // TASK, CRM or MEETING
+    private Long id;
+    private String op; // CREATED, UPDATED or DELETED
+    private Long version; // lastUpdatedAt in epoch millis; deletion time for DELETED
+}
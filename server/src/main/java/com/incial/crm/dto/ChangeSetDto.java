@@ -0,0 +1,20 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeSetDto<T> {
+    private List<T> upserts; // Created or updated since the cursor, oldest first
+    private List<Long> deletedIds;
+    private String cursor; // Opaque; pass back as ?since= on the next call
+    private boolean hasMore; // Call again immediately with the new cursor
+    private boolean resetRequired; // Cursor predates tombstone retention: reload /all, then sync from this cursor
+}
@@ -0,0 +1,35 @@
+package com.incial.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CrmAnalyticsDto {
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate from;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate to;
+
+    private long totalEntries;
+    private BigDecimal totalDealValue;
+    private long wonDeals; // Onboarded or Completed
+    private BigDecimal wonDealValue;
+    private double conversionRate; // Percentage of entries that are won deals
+    private BigDecimal averageDealValue;
+
+    private List<AnalyticsBucketDto> byStatus; // Keyed by lower-cased status
+    private List<AnalyticsBucketDto> byLeadSource; // Keyed by primary (first) lead source
+    private List<AnalyticsBucketDto> byAssignee;
+    private List<AnalyticsBucketDto> byMonth; // Keyed by yyyy-MM of last contact, else last update
+}
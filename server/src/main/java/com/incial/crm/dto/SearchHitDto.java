@@ -0,0 +1,18 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDto {
+    private String type; // CRM, TASK or MEETING
+    private Long id;
+    private String title;
+    private String snippet; // HTML-escaped text; matched terms wrapped in <mark></mark>
+    private double score;
+}
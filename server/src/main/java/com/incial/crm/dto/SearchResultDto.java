@@ -0,0 +1,21 @@
+package com.incial.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDto {
+    private String query;
+    private int page;
+    private int size;
+    private boolean hasMore;
+    private boolean fullText; // false when served by the portable LIKE fallback
+    private List<SearchHitDto> hits;
+}
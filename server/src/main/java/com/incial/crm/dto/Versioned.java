@@ -0,0 +1,12 @@
+package com.incial.crm.dto;
+
+/**
+ * A collection and the ETag it was read under, both from the same read-only transaction.
+ * {@code body} is null when the client already holds that version.
+ */
+public record Versioned<T>(String etag, T body) {
+
+    public boolean notModified() {
+        return body == null;
+    }
+}
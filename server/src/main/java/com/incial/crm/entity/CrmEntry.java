@@ -15,7 +15,9 @@ import java.util.Map;
 
 @Entity
 @Table(name = "crm_entries", indexes = {
-    @Index(name = "idx_crm_status", columnList = "status")
+    @Index(name = "idx_crm_status", columnList = "status"),
+    @Index(name = "idx_crm_status_bucket", columnList = "status_bucket"),
+    @Index(name = "idx_crm_last_updated_at", columnList = "last_updated_at, id")
 })
 @Data
 @Builder
@@ -47,6 +49,11 @@ public class CrmEntry {
     @Column(length = 50)
     private String status;
 
+    // Derived from status on every write; query this instead of LOWER(status)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_bucket", length = 20)
+    private CrmStatusBucket statusBucket;
+
     @Column(name = "deal_value", precision = 15, scale = 2)
     private BigDecimal dealValue;
 
@@ -94,5 +101,6 @@ public class CrmEntry {
     @PreUpdate
     protected void onUpdate() {
         lastUpdatedAt = LocalDateTime.now();
+        statusBucket = CrmStatusBucket.fromStatus(status);
     }
 }
@@ -0,0 +1,29 @@
+package com.incial.crm.entity;
+
+import java.util.Set;
+
+/**
+ * Normalized, indexable form of CrmEntry.status, matching the registry tabs
+ * (onboarded / done / closed). Leads and unknown statuses fall into OTHER.
+ */
+public enum CrmStatusBucket {
+    ONBOARDED,
+    COMPLETED,
+    DROPPED,
+    OTHER;
+
+    public static final Set<String> ONBOARDED_STATUSES = Set.of("onboarded", "on progress", "quote sent");
+    public static final Set<String> COMPLETED_STATUSES = Set.of("completed");
+    public static final Set<String> DROPPED_STATUSES = Set.of("drop");
+
+    public static CrmStatusBucket fromStatus(String status) {
+        if (status == null) {
+            return OTHER;
+        }
+        String normalized = status.trim().toLowerCase();
+        if (ONBOARDED_STATUSES.contains(normalized)) return ONBOARDED;
+        if (COMPLETED_STATUSES.contains(normalized)) return COMPLETED;
+        if (DROPPED_STATUSES.contains(normalized)) return DROPPED;
+        return OTHER;
+    }
+}
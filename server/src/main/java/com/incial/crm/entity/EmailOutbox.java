@@ -0,0 +1,96 @@
+package com.incial.crm.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Pending outbound email, written in the same transaction as the change that triggered it
+ * and delivered by EmailOutboxDispatcher once that transaction has committed.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_email_outbox_recipient", columnList = "recipient, status"),
+    @Index(name = "idx_email_outbox_merged_into", columnList = "merged_into")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+    public static final String TYPE_TASK_ASSIGNMENT = "TASK_ASSIGNMENT";
+    // One email listing several tasks assigned to the same recipient by a bulk operation
+    public static final String TYPE_TASK_ASSIGNMENT_BATCH = "TASK_ASSIGNMENT_BATCH";
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SENT = "SENT";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_CANCELLED = "CANCELLED";
+    // Folded into the digest entry named by mergedInto; never sent on its own
+    public static final String STATUS_MERGED = "MERGED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_id_seq", allocationSize = 100)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    @Column(nullable = false, length = 255)
+    private String recipient;
+
+    @Column(name = "task_id")
+    private Long taskId;
+
+    // Set instead of taskId for TYPE_TASK_ASSIGNMENT_BATCH
+    @Convert(converter = LongListConverter.class)
+    @Column(name = "task_ids", columnDefinition = "TEXT")
+    private List<Long> taskIds;
+
+    @Column(name = "merged_into")
+    private Long mergedInto;
+
+    @Column(name = "assigned_by", length = 255)
+    private String assignedBy;
+
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private String status = STATUS_PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+        if (status == null) {
+            status = STATUS_PENDING;
+        }
+        if (attempts == null) {
+            attempts = 0;
+        }
+    }
+}
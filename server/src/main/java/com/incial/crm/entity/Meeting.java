@@ -10,7 +10,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "meetings")
+@Table(name = "meetings", indexes = {
+    @Index(name = "idx_meeting_last_updated_at", columnList = "last_updated_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
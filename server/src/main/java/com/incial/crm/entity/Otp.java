@@ -32,6 +32,11 @@ public class Otp {
     @Builder.Default
     private Boolean verified = false;
 
+    // Verification attempts, right or wrong; the OTP is locked at otp.max-attempts
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -41,5 +46,8 @@ public class Otp {
         if (verified == null) {
             verified = false;
         }
+        if (attempts == null) {
+            attempts = 0;
+        }
     }
 }
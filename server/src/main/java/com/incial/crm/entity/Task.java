@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -14,16 +15,21 @@ import java.util.List;
 @Entity
 @Table(name = "tasks", indexes = {
     @Index(name = "idx_task_status", columnList = "status"),
+    @Index(name = "idx_task_status_bucket", columnList = "status_bucket"),
     @Index(name = "idx_task_company_id", columnList = "company_id"),
-    @Index(name = "idx_task_due_date", columnList = "due_date")
+    @Index(name = "idx_task_due_date", columnList = "due_date"),
+    @Index(name = "idx_task_last_updated_at", columnList = "last_updated_at, id")
 })
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
+    // Pooled sequence (db/migrations/006_pooled_sequences.sql) so inserts can be JDBC-batched;
+    // IDENTITY forces Hibernate to insert row by row to read back each generated key
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_id_seq", allocationSize = 100)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -35,6 +41,11 @@ public class Task {
     @Column(length = 50)
     private String status;
 
+    // Derived from status on every write; query this instead of LOWER(status)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_bucket", length = 20)
+    private TaskStatusBucket statusBucket;
+
     @Column(length = 50)
     private String priority;
 
@@ -42,6 +53,7 @@ public class Task {
     private String assignedTo; // Deprecated: kept for backward compatibility during migration
 
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 200) // Matches TaskService.MAX_PAGE_SIZE so a full page initializes in one query
     @Builder.Default
     private List<TaskAssignee> assignees = new ArrayList<>();
 
@@ -77,11 +89,13 @@ public class Task {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         lastUpdatedAt = LocalDateTime.now();
+        statusBucket = TaskStatusBucket.fromStatus(status);
     }
 
     @PreUpdate
     protected void onUpdate() {
         lastUpdatedAt = LocalDateTime.now();
+        statusBucket = TaskStatusBucket.fromStatus(status);
     }
     
     @PostLoad
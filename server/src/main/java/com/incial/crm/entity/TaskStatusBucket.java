@@ -0,0 +1,18 @@
+package com.incial.crm.entity;
+
+import java.util.Set;
+
+/**
+ * Normalized, indexable form of Task.status. Free-text statuses are case-insensitive, so
+ * queries on the raw column need LOWER(...) and cannot use an index.
+ */
+public enum TaskStatusBucket {
+    ACTIVE,
+    COMPLETED;
+
+    public static final Set<String> COMPLETED_STATUSES = Set.of("completed", "done", "posted");
+
+    public static TaskStatusBucket fromStatus(String status) {
+        return status != null && COMPLETED_STATUSES.contains(status.trim().toLowerCase()) ? COMPLETED : ACTIVE;
+    }
+}
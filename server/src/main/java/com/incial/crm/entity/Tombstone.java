@@ -0,0 +1,47 @@
+package com.incial.crm.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted task, CRM entry or meeting, written in the deleting transaction so
+ * /changes can tell clients which ids to drop. Purged after sync.tombstone-retention-days.
+ */
+@Entity
+@Table(name = "tombstones", indexes = {
+    @Index(name = "idx_tombstone_type_deleted_at", columnList = "entity_type, deleted_at, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tombstone {
+    public static final String TYPE_TASK = "TASK";
+    public static final String TYPE_CRM = "CRM";
+    public static final String TYPE_MEETING = "MEETING";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (deletedAt == null) {
+            deletedAt = LocalDateTime.now();
+        }
+    }
+}
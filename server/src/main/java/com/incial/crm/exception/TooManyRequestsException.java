@@ -0,0 +1,20 @@
+package com.incial.crm.exception;
+
+import lombok.Getter;
+
+/**
+ * A caller exceeded a rate limit; GlobalExceptionHandler answers 429 with Retry-After.
+ * No stack trace: under attack this is thrown far more often than anything else.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,26 @@
+package com.incial.crm.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Aggregate fingerprint of a table: row count, highest id and latest update time.
+ * Inserts raise maxId, updates raise maxUpdatedAt and deletes lower rowCount, so any write changes it.
+ */
+public interface CollectionVersion {
+
+    Long getRowCount();
+
+    Long getMaxId();
+
+    LocalDateTime getMaxUpdatedAt();
+
+    default String fingerprint() {
+        LocalDateTime updatedAt = getMaxUpdatedAt();
+        long updatedMicros = updatedAt == null ? 0
+                : updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return (getRowCount() == null ? 0 : getRowCount()) + "."
+                + (getMaxId() == null ? 0 : getMaxId()) + "."
+                + Long.toString(updatedMicros, 36);
+    }
+}
@@ -1,25 +1,105 @@
 package com.incial.crm.repository;
 
 import com.incial.crm.entity.CrmEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CrmEntryRepository extends JpaRepository<CrmEntry, Long> {
+
+    // Export reads through a JDBC cursor (fetch size = StreamingExporter.CHUNK_SIZE); consume it inside a read-only transaction
+    @Query("SELECT c FROM CrmEntry c ORDER BY c.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<CrmEntry> streamAllForExport();
+
+    // Delta sync keyset on (last_updated_at, id); see ChangeFeedService
+    @Query("SELECT c FROM CrmEntry c WHERE c.lastUpdatedAt > :updatedAt " +
+           "OR (c.lastUpdatedAt = :updatedAt AND c.id > :id) ORDER BY c.lastUpdatedAt, c.id")
+    List<CrmEntry> findChangedSince(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT COUNT(c) AS rowCount, MAX(c.id) AS maxId, MAX(c.lastUpdatedAt) AS maxUpdatedAt FROM CrmEntry c")
+    CollectionVersion findCollectionVersion();
     
-    // Query for onboarded companies (active registry entries)
-    // Includes: onboarded, on progress, Quote Sent
-    @Query("SELECT c FROM CrmEntry c WHERE LOWER(c.status) IN ('onboarded', 'on progress', 'quote sent')")
+    // Registry tabs filter on the normalized status_bucket so idx_crm_status_bucket applies
+    // Onboarded (active registry entries) includes: onboarded, on progress, Quote Sent
+    @Query("SELECT c FROM CrmEntry c WHERE c.statusBucket = com.incial.crm.entity.CrmStatusBucket.ONBOARDED")
     List<CrmEntry> findOnboardedEntries();
     
     // Query for completed companies
-    @Query("SELECT c FROM CrmEntry c WHERE LOWER(c.status) = 'completed'")
+    @Query("SELECT c FROM CrmEntry c WHERE c.statusBucket = com.incial.crm.entity.CrmStatusBucket.COMPLETED")
     List<CrmEntry> findCompletedEntries();
     
     // Query for dropped companies
-    @Query("SELECT c FROM CrmEntry c WHERE LOWER(c.status) = 'drop'")
+    @Query("SELECT c FROM CrmEntry c WHERE c.statusBucket = com.incial.crm.entity.CrmStatusBucket.DROPPED")
     List<CrmEntry> findDroppedEntries();
+
+    // ------------------ ANALYTICS ------------------
+    // Aggregations for the analytics page. An entry's activity date is its last contact, falling back to
+    // the date it was last updated; when ranged is false every entry is counted, including undated ones.
+
+    interface AnalyticsBucket {
+        String getBucket();
+        Long getEntries();
+        BigDecimal getDealValue();
+    }
+
+    @Query(value = "SELECT LOWER(COALESCE(NULLIF(c.status, ''), 'unknown')) AS bucket, " +
+                   "COUNT(*) AS entries, COALESCE(SUM(c.deal_value), 0) AS dealValue " +
+                   "FROM crm_entries c " +
+                   "WHERE (:ranged = FALSE OR COALESCE(c.last_contact, CAST(c.last_updated_at AS DATE)) BETWEEN :fromDate AND :toDate) " +
+                   "GROUP BY bucket ORDER BY 2 DESC",
+           nativeQuery = true)
+    List<AnalyticsBucket> aggregateByStatus(@Param("ranged") boolean ranged,
+                                            @Param("fromDate") LocalDate fromDate,
+                                            @Param("toDate") LocalDate toDate);
+
+    // lead_sources holds the JSON array written by StringListConverter; the first element is the primary source.
+    // Only array-shaped values are cast, so legacy plain-text or scalar values land in 'Unknown' instead of
+    // failing the whole query.
+    @Query(value = "SELECT COALESCE(NULLIF(CASE WHEN c.lead_sources LIKE '[%]' " +
+                   "THEN jsonb_extract_path_text(CAST(c.lead_sources AS jsonb), '0') END, ''), 'Unknown') AS bucket, " +
+                   "COUNT(*) AS entries, COALESCE(SUM(c.deal_value), 0) AS dealValue " +
+                   "FROM crm_entries c " +
+                   "WHERE (:ranged = FALSE OR COALESCE(c.last_contact, CAST(c.last_updated_at AS DATE)) BETWEEN :fromDate AND :toDate) " +
+                   "GROUP BY bucket ORDER BY 3 DESC",
+           nativeQuery = true)
+    List<AnalyticsBucket> aggregateByLeadSource(@Param("ranged") boolean ranged,
+                                                @Param("fromDate") LocalDate fromDate,
+                                                @Param("toDate") LocalDate toDate);
+
+    @Query(value = "SELECT COALESCE(NULLIF(c.assigned_to, ''), 'Unassigned') AS bucket, " +
+                   "COUNT(*) AS entries, COALESCE(SUM(c.deal_value), 0) AS dealValue " +
+                   "FROM crm_entries c " +
+                   "WHERE (:ranged = FALSE OR COALESCE(c.last_contact, CAST(c.last_updated_at AS DATE)) BETWEEN :fromDate AND :toDate) " +
+                   "GROUP BY bucket ORDER BY 2 DESC",
+           nativeQuery = true)
+    List<AnalyticsBucket> aggregateByAssignee(@Param("ranged") boolean ranged,
+                                              @Param("fromDate") LocalDate fromDate,
+                                              @Param("toDate") LocalDate toDate);
+
+    @Query(value = "SELECT TO_CHAR(COALESCE(c.last_contact, CAST(c.last_updated_at AS DATE)), 'YYYY-MM') AS bucket, " +
+                   "COUNT(*) AS entries, COALESCE(SUM(c.deal_value), 0) AS dealValue " +
+                   "FROM crm_entries c " +
+                   "WHERE COALESCE(c.last_contact, CAST(c.last_updated_at AS DATE)) IS NOT NULL " +
+                   "AND (:ranged = FALSE OR COALESCE(c.last_contact, CAST(c.last_updated_at AS DATE)) BETWEEN :fromDate AND :toDate) " +
+                   "GROUP BY bucket ORDER BY 1",
+           nativeQuery = true)
+    List<AnalyticsBucket> aggregateByMonth(@Param("ranged") boolean ranged,
+                                           @Param("fromDate") LocalDate fromDate,
+                                           @Param("toDate") LocalDate toDate);
 }
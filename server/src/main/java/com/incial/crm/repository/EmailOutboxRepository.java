@@ -0,0 +1,63 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.entity.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = 'PENDING' AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Claims a due entry by pushing its next attempt past the lease; only one worker (or instance) gets 1 back.
+    // If the worker dies mid-send the entry simply becomes due again once the lease expires.
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.nextAttemptAt = :leaseUntil, e.attempts = e.attempts + 1 " +
+           "WHERE e.id = :id AND e.status = 'PENDING' AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = 'SENT', e.sentAt = :sentAt, e.lastError = NULL WHERE e.id = :id")
+    int markSent(@Param("id") Long id, @Param("sentAt") LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error WHERE e.id = :id")
+    int markAttemptFailed(@Param("id") Long id,
+                          @Param("status") String status,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("error") String error);
+
+    // Assignment entries for the same recipient that no worker has touched yet (attempts = 0)
+    @Query("SELECT e FROM EmailOutbox e WHERE e.recipient = :recipient AND e.status = 'PENDING' AND e.attempts = 0 " +
+           "AND e.id <> :digestId AND e.type IN ('TASK_ASSIGNMENT', 'TASK_ASSIGNMENT_BATCH') ORDER BY e.id")
+    List<EmailOutbox> findDigestCandidates(@Param("recipient") String recipient,
+                                           @Param("digestId") Long digestId,
+                                           Pageable pageable);
+
+    // Races claim() row by row: claim bumps attempts, so each entry ends up either claimed or merged, never both
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = 'MERGED', e.mergedInto = :digestId " +
+           "WHERE e.id IN :ids AND e.status = 'PENDING' AND e.attempts = 0")
+    int mergeInto(@Param("ids") Collection<Long> ids, @Param("digestId") Long digestId);
+
+    List<EmailOutbox> findByMergedInto(Long digestId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status <> 'PENDING' AND e.createdAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,15 +1,25 @@
 package com.incial.crm.repository;
 
 import com.incial.crm.entity.Meeting;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface MeetingRepository extends JpaRepository<Meeting, Long> {
+
+    // Delta sync keyset on (last_updated_at, id); see ChangeFeedService
+    @Query("SELECT m FROM Meeting m WHERE m.lastUpdatedAt > :updatedAt " +
+           "OR (m.lastUpdatedAt = :updatedAt AND m.id > :id) ORDER BY m.lastUpdatedAt, m.id")
+    List<Meeting> findChangedSince(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT COUNT(m) AS rowCount, MAX(m.id) AS maxId, MAX(m.lastUpdatedAt) AS maxUpdatedAt FROM Meeting m")
+    CollectionVersion findCollectionVersion();
     
     // Find meetings assigned to a specific user
     @Query("SELECT m FROM Meeting m WHERE " +
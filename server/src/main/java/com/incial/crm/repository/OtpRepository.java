@@ -2,17 +2,39 @@ package com.incial.crm.repository;
 
 import com.incial.crm.entity.Otp;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface OtpRepository extends JpaRepository<Otp, Long> {
-    Optional<Otp> findByEmailAndOtpCodeAndVerifiedFalseAndExpiresAtAfter(
-            String email, String otpCode, LocalDateTime currentTime);
-    
+
+    // generate replaces the previous code, so there is at most one live row per email
+    Optional<Otp> findFirstByEmailAndVerifiedFalseOrderByIdDesc(String email);
+
     void deleteByEmail(String email);
-    
-    void deleteByExpiresAtBefore(LocalDateTime currentTime);
+
+    // Burns one attempt before the code is compared; 0 once the OTP is locked, consumed or gone
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Otp o SET o.attempts = o.attempts + 1 " +
+           "WHERE o.id = :id AND o.verified = false AND o.attempts < :maxAttempts")
+    int recordAttempt(@Param("id") Long id, @Param("maxAttempts") int maxAttempts);
+
+    // 0 when a concurrent verify consumed it first
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Otp o SET o.verified = true WHERE o.id = :id AND o.verified = false")
+    int markVerified(@Param("id") Long id);
+
+    // One chunk of expired or used rows; PostgreSQL has no DELETE ... LIMIT, hence the subquery
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM otps WHERE id IN (" +
+                   "SELECT id FROM otps WHERE expires_at < :now OR verified = TRUE LIMIT :limit)",
+           nativeQuery = true)
+    int deleteExpiredChunk(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
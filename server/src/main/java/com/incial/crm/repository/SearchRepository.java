@@ -0,0 +1,193 @@
+package com.incial.crm.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Search queries over CRM entries, tasks and meetings.
+ * <p>
+ * On PostgreSQL with {@code db/migrations/003_search.sql} applied, hits come from the generated
+ * {@code search_vector} columns (GIN) combined with pg_trgm similarity on names and titles.
+ * Anywhere else (H2 in tests, a dev database without the migration) callers fall back to
+ * {@link #likeSearch}, which is portable JPQL.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class SearchRepository {
+
+    public static final String TYPE_CRM = "CRM";
+    public static final String TYPE_TASK = "TASK";
+    public static final String TYPE_MEETING = "MEETING";
+
+    // Matched terms are wrapped in [[ ]] so the service can HTML-escape the text before adding <mark>
+    private static final String HEADLINE_OPTIONS =
+            "'StartSel=[[, StopSel=]], MaxWords=24, MinWords=8, MaxFragments=2, FragmentDelimiter=\" … \"'";
+
+    // Each *_HITS query only ranks; ts_headline re-parses the whole document, so it is computed
+    // in SNIPPETS for the page of ids that survives ORDER BY ... LIMIT, not for every match.
+    private static final String CRM_HITS = """
+            SELECT 'CRM' AS type, c.id AS id, c.company AS title,
+                   ts_rank(c.search_vector, q.query)
+                     + greatest(similarity(c.company, :term), similarity(coalesce(c.contact_name, ''), :term)) AS score
+            FROM crm_entries c, q
+            WHERE c.search_vector @@ q.query OR c.company % :term OR c.contact_name % :term
+            """;
+
+    private static final String TASK_HITS = """
+            SELECT 'TASK' AS type, t.id AS id, t.title AS title,
+                   ts_rank(t.search_vector, q.query) + similarity(t.title, :term) AS score
+            FROM tasks t, q
+            WHERE t.search_vector @@ q.query OR t.title % :term
+            """;
+
+    private static final String MEETING_HITS = """
+            SELECT 'MEETING' AS type, m.id AS id, m.title AS title,
+                   ts_rank(m.search_vector, q.query) + similarity(m.title, :term) AS score
+            FROM meetings m, q
+            WHERE m.search_vector @@ q.query OR m.title % :term
+            """;
+
+    private static final String SNIPPETS = """
+            SELECT p.type, p.id, p.title,
+                   CASE p.type
+                     WHEN 'CRM' THEN ts_headline('simple', concat_ws(' · ', c.company, c.contact_name, c.notes), q.query, %1$s)
+                     WHEN 'TASK' THEN ts_headline('simple', concat_ws(' · ', t.title, t.description), q.query, %1$s)
+                     ELSE ts_headline('simple', concat_ws(' · ', m.title, m.notes), q.query, %1$s)
+                   END AS snippet,
+                   p.score
+            FROM page p CROSS JOIN q
+            LEFT JOIN crm_entries c ON p.type = 'CRM' AND c.id = p.id
+            LEFT JOIN tasks t ON p.type = 'TASK' AND t.id = p.id
+            LEFT JOIN meetings m ON p.type = 'MEETING' AND m.id = p.id
+            ORDER BY p.score DESC, p.type, p.id DESC
+            """.formatted(HEADLINE_OPTIONS);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${search.full-text.enabled:true}")
+    private boolean fullTextEnabled;
+
+    private volatile Boolean fullTextAvailable;
+
+    public record SearchRow(String type, Long id, String title, String text, double score) {}
+
+    /**
+     * True when the database is PostgreSQL and the search migration has been applied.
+     * Probed once, outside of any query that could be aborted by a failed statement.
+     */
+    public boolean isFullTextAvailable() {
+        Boolean available = fullTextAvailable;
+        if (available == null) {
+            available = fullTextEnabled && probeFullText();
+            fullTextAvailable = available;
+            log.info("Search backend: {}", available ? "PostgreSQL full-text + trigram" : "LIKE fallback");
+        }
+        return available;
+    }
+
+    private boolean probeFullText() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(
+                    jdbcTemplate.getDataSource(), metaData -> metaData.getDatabaseProductName());
+            if (product == null || !product.toLowerCase().contains("postgresql")) {
+                return false;
+            }
+            Integer columns = jdbcTemplate.queryForObject("""
+                    SELECT COUNT(*) FROM information_schema.columns
+                    WHERE table_schema = current_schema()
+                      AND column_name = 'search_vector'
+                      AND table_name IN ('crm_entries', 'tasks', 'meetings')
+                      AND EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')
+                    """, Integer.class);
+            return columns != null && columns == 3;
+        } catch (Exception e) {
+            log.warn("Could not detect full-text search support, using LIKE fallback: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Ranked hits across the requested types. {@code text} holds a ts_headline snippet with
+     * matches wrapped in [[ ]]; it is not HTML-escaped.
+     */
+    @SuppressWarnings("unchecked")
+    public List<SearchRow> fullTextSearch(String term, Set<String> types, int limit, int offset) {
+        StringJoiner union = new StringJoiner(" UNION ALL ");
+        if (types.contains(TYPE_CRM)) union.add(CRM_HITS);
+        if (types.contains(TYPE_TASK)) union.add(TASK_HITS);
+        if (types.contains(TYPE_MEETING)) union.add(MEETING_HITS);
+
+        String sql = "WITH q AS (SELECT websearch_to_tsquery('simple', :term) AS query), "
+                + "page AS (SELECT type, id, title, score FROM (" + union + ") hits "
+                + "ORDER BY score DESC, type, id DESC LIMIT :limit OFFSET :offset) "
+                + SNIPPETS;
+
+        List<Object[]> rows = entityManager.createNativeQuery(sql)
+                .setParameter("term", term)
+                .setParameter("limit", limit)
+                .setParameter("offset", offset)
+                .getResultList();
+
+        List<SearchRow> hits = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            hits.add(new SearchRow(
+                    (String) row[0],
+                    ((Number) row[1]).longValue(),
+                    (String) row[2],
+                    (String) row[3],
+                    row[4] == null ? 0 : ((Number) row[4]).doubleValue()));
+        }
+        return hits;
+    }
+
+    /**
+     * Case-insensitive substring match for one type, newest first. {@code text} holds the raw
+     * searchable body (notes/description) and {@code score} is left at 0 for the caller to rank.
+     */
+    public List<SearchRow> likeSearch(String type, String term, int limit) {
+        String jpql = switch (type) {
+            case TYPE_CRM -> "SELECT c.id, c.company, CONCAT(COALESCE(c.contactName, ''), ' · ', COALESCE(c.notes, '')) "
+                    + "FROM CrmEntry c WHERE LOWER(c.company) LIKE :pattern ESCAPE '\\' "
+                    + "OR LOWER(c.contactName) LIKE :pattern ESCAPE '\\' OR LOWER(c.notes) LIKE :pattern ESCAPE '\\' "
+                    + "ORDER BY c.id DESC";
+            case TYPE_TASK -> "SELECT t.id, t.title, t.description FROM Task t "
+                    + "WHERE LOWER(t.title) LIKE :pattern ESCAPE '\\' OR LOWER(t.description) LIKE :pattern ESCAPE '\\' "
+                    + "ORDER BY t.id DESC";
+            case TYPE_MEETING -> "SELECT m.id, m.title, m.notes FROM Meeting m "
+                    + "WHERE LOWER(m.title) LIKE :pattern ESCAPE '\\' OR LOWER(m.notes) LIKE :pattern ESCAPE '\\' "
+                    + "ORDER BY m.id DESC";
+            default -> throw new IllegalArgumentException("Unknown search type: " + type);
+        };
+
+        String pattern = "%" + term.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+
+        List<Object[]> rows = entityManager.createQuery(jpql, Object[].class)
+                .setParameter("pattern", pattern)
+                .setMaxResults(limit)
+                .getResultList();
+
+        List<SearchRow> hits = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            hits.add(new SearchRow(type, (Long) row[0], (String) row[1], (String) row[2], 0));
+        }
+        return hits;
+    }
+}
@@ -4,8 +4,11 @@ import com.incial.crm.entity.TaskAssignee;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -16,4 +19,50 @@ public interface TaskAssigneeRepository extends JpaRepository<TaskAssignee, Long
     @Modifying
     @Query("DELETE FROM TaskAssignee ta WHERE ta.task.id = :taskId")
     void deleteByTaskId(Long taskId);
+
+    // Assignee-only edits leave the task row untouched, so the task list ETag folds this in as well
+    @Query("SELECT COUNT(ta) AS rowCount, MAX(ta.id) AS maxId, MAX(ta.assignedAt) AS maxUpdatedAt FROM TaskAssignee ta")
+    CollectionVersion findCollectionVersion();
+
+    interface AssigneeStatsRow {
+        String getAssigneeEmail();
+        String getAssigneeName();
+        Long getTotal();
+        Long getCompleted();
+        Long getInProgress();
+        Long getPending();
+        Long getOverdue();
+        Double getAverageCompletionHours();
+    }
+
+    // One grouped pass over task_assignees x tasks, keyed by lower-cased email. Legacy tasks with
+    // no task_assignees rows are credited through tasks.assigned_to, which holds either an email or
+    // a user's name (matched against users.name, as the old UI did). When ranged is false the
+    // window is ignored and all tasks are counted.
+    @Query(value = "WITH assignment AS (" +
+                   "  SELECT LOWER(a.assignee_email) AS email, a.assignee_name AS name, a.task_id AS task_id FROM task_assignees a " +
+                   "  UNION ALL " +
+                   "  SELECT CASE WHEN t.assigned_to LIKE '%@%' THEN LOWER(t.assigned_to) " +
+                   "              ELSE (SELECT MIN(LOWER(u.email)) FROM users u WHERE u.name = t.assigned_to) END, " +
+                   "         t.assigned_to, t.id FROM tasks t " +
+                   "  WHERE t.assigned_to IS NOT NULL AND t.assigned_to <> 'Unassigned' " +
+                   "  AND NOT EXISTS (SELECT 1 FROM task_assignees a2 WHERE a2.task_id = t.id)" +
+                   ") " +
+                   "SELECT s.email AS assigneeEmail, MAX(s.name) AS assigneeName, COUNT(*) AS total, " +
+                   "  SUM(CASE WHEN t.status_bucket = 'COMPLETED' THEN 1 ELSE 0 END) AS completed, " +
+                   "  SUM(CASE WHEN LOWER(t.status) IN ('in progress', 'in review') THEN 1 ELSE 0 END) AS inProgress, " +
+                   "  SUM(CASE WHEN LOWER(t.status) = 'not started' THEN 1 ELSE 0 END) AS pending, " +
+                   "  SUM(CASE WHEN t.status_bucket = 'ACTIVE' AND t.due_date < :today THEN 1 ELSE 0 END) AS overdue, " +
+                   "  AVG(CASE WHEN t.status_bucket = 'COMPLETED' " +
+                   "           THEN EXTRACT(EPOCH FROM (t.last_updated_at - t.created_at)) / 3600.0 END) AS averageCompletionHours " +
+                   "FROM assignment s JOIN tasks t ON t.id = s.task_id " +
+                   "WHERE s.email IS NOT NULL " +
+                   "AND (:ranged = FALSE OR (t.created_at >= :fromTs AND t.created_at < :toTs)) " +
+                   "GROUP BY s.email " +
+                   "ORDER BY completed DESC, total DESC",
+           nativeQuery = true)
+    List<AssigneeStatsRow> aggregateAssigneeStats(@Param("ranged") boolean ranged,
+                                                  @Param("fromTs") LocalDateTime fromTs,
+                                                  @Param("toTs") LocalDateTime toTs,
+                                                  @Param("today") LocalDate today);
 }
@@ -1,29 +1,131 @@
 package com.incial.crm.repository;
 
 import com.incial.crm.entity.Task;
+import com.incial.crm.entity.TaskStatusBucket;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
+
+    // List reads fetch assignees in the same statement; TaskService.convertToDto touches them for every row
+    @Override
+    @EntityGraph(attributePaths = "assignees")
+    List<Task> findAll();
+
+    // Export reads ids through a JDBC cursor (fetch size = StreamingExporter.CHUNK_SIZE) and loads each
+    // chunk of tasks with its assignees in one statement; consume it inside a read-only transaction.
+    @Query("SELECT t.id FROM Task t ORDER BY t.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Long> streamIdsForExport();
+
+    @EntityGraph(attributePaths = "assignees")
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids ORDER BY t.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Task> findAllForExportByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Delta sync keyset on (last_updated_at, id); assignees load through @BatchSize
+    @Query("SELECT t FROM Task t WHERE t.lastUpdatedAt > :updatedAt " +
+           "OR (t.lastUpdatedAt = :updatedAt AND t.id > :id) ORDER BY t.lastUpdatedAt, t.id")
+    List<Task> findChangedSince(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT COUNT(t) AS rowCount, MAX(t.id) AS maxId, MAX(t.lastUpdatedAt) AS maxUpdatedAt FROM Task t")
+    CollectionVersion findCollectionVersion();
+
+    @EntityGraph(attributePaths = "assignees")
     List<Task> findByAssignedTo(String assignedTo);
+
+    // Bulk endpoints load every target task and its assignees in one statement
+    @EntityGraph(attributePaths = "assignees")
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids")
+    List<Task> findAllWithAssigneesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Set-based status change for the bulk endpoint; bypasses @PreUpdate, so the bucket and audit
+    // columns are written explicitly. Clears the persistence context: re-read anything needed afterwards.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = :status, t.statusBucket = :bucket, " +
+           "t.lastUpdatedBy = :updatedBy, t.lastUpdatedAt = :updatedAt WHERE t.id IN :ids")
+    int bulkUpdateStatus(@Param("ids") Collection<Long> ids,
+                         @Param("status") String status,
+                         @Param("bucket") TaskStatusBucket bucket,
+                         @Param("updatedBy") String updatedBy,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    @EntityGraph(attributePaths = "assignees")
     List<Task> findByCompanyId(Long companyId);
     
-    // Optimized queries for completed vs non-completed tasks
-    @Query("SELECT t FROM Task t WHERE LOWER(t.status) NOT IN ('completed', 'done', 'posted')")
+    // Completed vs non-completed tasks, filtered on the normalized status_bucket so idx_task_status_bucket applies
+    @EntityGraph(attributePaths = "assignees")
+    @Query("SELECT t FROM Task t WHERE t.statusBucket = com.incial.crm.entity.TaskStatusBucket.ACTIVE")
     List<Task> findAllActiveTasks();
     
-    @Query("SELECT t FROM Task t WHERE LOWER(t.status) IN ('completed', 'done', 'posted')")
+    @EntityGraph(attributePaths = "assignees")
+    @Query("SELECT t FROM Task t WHERE t.statusBucket = com.incial.crm.entity.TaskStatusBucket.COMPLETED")
     List<Task> findAllCompletedTasks();
     
     // Optimized query for tasks assigned to a specific user (supports multi-assignee)
+    @EntityGraph(attributePaths = "assignees")
     @Query("SELECT DISTINCT t FROM Task t LEFT JOIN t.assignees a WHERE " +
            "LOWER(a.assigneeEmail) = LOWER(:userEmail) OR " +
            "LOWER(t.assignedTo) = LOWER(:userEmail) OR " +
            "LOWER(t.assignedTo) LIKE LOWER(CONCAT('%', :userName, '%'))")
     List<Task> findTasksByUserEmail(@Param("userEmail") String userEmail, @Param("userName") String userName);
+
+    // Keyset page ordered by (lastUpdatedAt DESC, id DESC); a null cursor starts from the newest task.
+    // Paged reads must not fetch-join the collection (Hibernate would paginate in memory), so assignees
+    // are loaded by the @BatchSize on Task.assignees in one extra statement per page.
+    @Query("SELECT t FROM Task t WHERE " +
+           "(:statusBucket IS NULL OR t.statusBucket = :statusBucket) AND " +
+           "(:priority IS NULL OR LOWER(t.priority) = LOWER(:priority)) AND " +
+           "(:companyId IS NULL OR t.companyId = :companyId) AND " +
+           "(:assignee IS NULL OR EXISTS (SELECT a FROM TaskAssignee a WHERE a.task = t AND a.assigneeEmail = LOWER(:assignee))) AND " +
+           "(:dueFrom IS NULL OR t.dueDate >= :dueFrom) AND " +
+           "(:dueTo IS NULL OR t.dueDate <= :dueTo) AND " +
+           "(:cursorUpdatedAt IS NULL OR t.lastUpdatedAt < :cursorUpdatedAt OR " +
+           " (t.lastUpdatedAt = :cursorUpdatedAt AND t.id < :cursorId)) " +
+           "ORDER BY t.lastUpdatedAt DESC, t.id DESC")
+    List<Task> findPageByLastUpdated(@Param("statusBucket") TaskStatusBucket statusBucket,
+                                     @Param("priority") String priority,
+                                     @Param("companyId") Long companyId,
+                                     @Param("assignee") String assignee,
+                                     @Param("dueFrom") LocalDate dueFrom,
+                                     @Param("dueTo") LocalDate dueTo,
+                                     @Param("cursorUpdatedAt") LocalDateTime cursorUpdatedAt,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+
+    // Keyset page ordered by (dueDate ASC, id ASC) over idx_task_due_date; tasks without a due date are excluded
+    @Query("SELECT t FROM Task t WHERE t.dueDate IS NOT NULL AND " +
+           "(:statusBucket IS NULL OR t.statusBucket = :statusBucket) AND " +
+           "(:priority IS NULL OR LOWER(t.priority) = LOWER(:priority)) AND " +
+           "(:companyId IS NULL OR t.companyId = :companyId) AND " +
+           "(:assignee IS NULL OR EXISTS (SELECT a FROM TaskAssignee a WHERE a.task = t AND a.assigneeEmail = LOWER(:assignee))) AND " +
+           "(:dueFrom IS NULL OR t.dueDate >= :dueFrom) AND " +
+           "(:dueTo IS NULL OR t.dueDate <= :dueTo) AND " +
+           "(:cursorDueDate IS NULL OR t.dueDate > :cursorDueDate OR " +
+           " (t.dueDate = :cursorDueDate AND t.id > :cursorId)) " +
+           "ORDER BY t.dueDate ASC, t.id ASC")
+    List<Task> findPageByDueDate(@Param("statusBucket") TaskStatusBucket statusBucket,
+                                 @Param("priority") String priority,
+                                 @Param("companyId") Long companyId,
+                                 @Param("assignee") String assignee,
+                                 @Param("dueFrom") LocalDate dueFrom,
+                                 @Param("dueTo") LocalDate dueTo,
+                                 @Param("cursorDueDate") LocalDate cursorDueDate,
+                                 @Param("cursorId") Long cursorId,
+                                 Pageable pageable);
 }
@@ -0,0 +1,31 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.entity.Tombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    // Keyset on (deleted_at, id) so deletes sharing a timestamp are never skipped between pages
+    @Query("SELECT t FROM Tombstone t WHERE t.entityType = :entityType " +
+           "AND (t.deletedAt > :deletedAt OR (t.deletedAt = :deletedAt AND t.id > :id)) " +
+           "ORDER BY t.deletedAt, t.id")
+    List<Tombstone> findChangedSince(@Param("entityType") String entityType,
+                                     @Param("deletedAt") LocalDateTime deletedAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Tombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -2,12 +2,30 @@ package com.incial.crm.repository;
 
 import com.incial.crm.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+    List<User> findAllByEmailIn(Collection<String> emails);
     boolean existsByEmail(String email);
+
+    // Set-based so concurrent completions cannot lose increments (no read-modify-write in Java)
+    @Modifying
+    @Query("UPDATE User u SET u.tasksCompleted = u.tasksCompleted + :delta, u.updatedAt = :updatedAt " +
+           "WHERE u.email IN :emails")
+    int incrementTasksCompleted(@Param("emails") Collection<String> emails,
+                                @Param("delta") int delta,
+                                @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT COUNT(u) AS rowCount, MAX(u.id) AS maxId, MAX(u.updatedAt) AS maxUpdatedAt FROM User u")
+    CollectionVersion findCollectionVersion();
 }
@@ -0,0 +1,40 @@
+package com.incial.crm.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+
+/**
+ * Picks the BCrypt cost for this hardware: the highest cost whose hash still fits the target
+ * latency, within [minCost, maxCost]. Each cost step doubles the work, so one timed hash at
+ * minCost is enough to extrapolate.
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(Duration target, int minCost, int maxCost) {
+        String salt = BCrypt.gensalt(minCost);
+        long fastestNanos = Long.MAX_VALUE;
+        // First sample doubles as JIT warm-up; keep the fastest
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration-password", salt);
+            fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+        }
+        int cost = minCost;
+        long estimate = fastestNanos;
+        while (cost < maxCost && estimate * 2 <= target.toNanos()) {
+            estimate *= 2;
+            cost++;
+        }
+        log.info("BCrypt cost {} (~{} ms per hash; cost {} measured {} ms, target {} ms)",
+                cost, estimate / 1_000_000, minCost, fastestNanos / 1_000_000, target.toMillis());
+        return cost;
+    }
+}
@@ -0,0 +1,19 @@
+package com.incial.crm.security;
+
+import java.io.IOException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Where {@link GoogleTokenVerifier} gets Google's ID-token signing keys. The production source
+ * is {@link JwksKeySource}; tests can point it at a local JWKS file or supply their own bean.
+ */
+public interface GoogleKeySource {
+
+    Keys fetch() throws IOException;
+
+    /** Public keys by JWK key id, and how long they may be cached. */
+    record Keys(Map<String, PublicKey> byKeyId, Duration maxAge) {
+    }
+}
@@ -0,0 +1,174 @@
+package com.incial.crm.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.JwtParserBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Verifies Google Sign-In ID tokens against cached signing keys, so a login is a local RSA
+ * signature check. Keys are refreshed in the background ahead of their Cache-Control expiry;
+ * a login only waits on Google when it sees a key id we have not fetched yet (Google rotated)
+ * or when no keys could be loaded at all. Refreshes are serialized and at most one per
+ * {@code google.jwks.min-refresh-interval-seconds}, so a burst of bad tokens cannot hammer Google.
+ */
+@Component
+@Slf4j
+public class GoogleTokenVerifier {
+
+    private static final Set<String> ISSUERS = Set.of("accounts.google.com", "https://accounts.google.com");
+    // Same allowance as Google's own client library
+    private static final long CLOCK_SKEW_SECONDS = 300;
+
+    private final GoogleKeySource keySource;
+    private final String clientId;
+    private final Duration refreshAhead;
+    private final Duration minRefreshInterval;
+    private final JwtParser parser;
+    private final Counter refreshSuccess;
+    private final Counter refreshFailure;
+
+    private final Object refreshLock = new Object();
+    private volatile KeySnapshot snapshot = new KeySnapshot(Map.of(), Instant.EPOCH);
+    private Instant lastRefreshAttempt = Instant.EPOCH;
+
+    public GoogleTokenVerifier(GoogleKeySource keySource,
+                               @Value("${google.client.id}") String clientId,
+                               @Value("${google.jwks.refresh-ahead-seconds:300}") long refreshAheadSeconds,
+                               @Value("${google.jwks.min-refresh-interval-seconds:30}") long minRefreshIntervalSeconds,
+                               MeterRegistry meterRegistry) {
+        this.keySource = keySource;
+        this.clientId = clientId;
+        this.refreshAhead = Duration.ofSeconds(refreshAheadSeconds);
+        this.minRefreshInterval = Duration.ofSeconds(minRefreshIntervalSeconds);
+
+        JwtParserBuilder builder = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return keyFor(header.getKeyId());
+                    }
+                })
+                .clockSkewSeconds(CLOCK_SKEW_SECONDS);
+        if (isConfigured()) {
+            builder.requireAudience(clientId);
+        }
+        // Thread-safe and immutable once built, like the parser in JwtUtil
+        this.parser = builder.build();
+
+        this.refreshSuccess = Counter.builder("google.jwks.refresh").tag("result", "success")
+                .description("Google signing key refreshes")
+                .register(meterRegistry);
+        this.refreshFailure = Counter.builder("google.jwks.refresh").tag("result", "failure")
+                .description("Google signing key refreshes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Identity from a valid ID token for this client; empty if the token is forged, expired or
+     * meant for another audience. IOException when Google's keys cannot be loaded.
+     */
+    public Optional<GoogleIdentity> verify(String idToken) throws IOException {
+        if (!isConfigured()) {
+            throw new IllegalStateException("Google authentication is not properly configured. Please contact the administrator.");
+        }
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(idToken).getPayload();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected Google ID token: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (!ISSUERS.contains(claims.getIssuer())) {
+            log.debug("Rejected Google ID token from issuer {}", claims.getIssuer());
+            return Optional.empty();
+        }
+        return Optional.of(new GoogleIdentity(
+                claims.getSubject(),
+                claims.get("email", String.class),
+                Boolean.TRUE.equals(claims.get("email_verified", Boolean.class)),
+                claims.get("name", String.class),
+                claims.get("picture", String.class)));
+    }
+
+    /** Refreshes the keys once they are within {@code google.jwks.refresh-ahead-seconds} of expiry. */
+    @Scheduled(fixedDelayString = "${google.jwks.refresh-check-ms:60000}")
+    public void refreshIfDue() {
+        if (isConfigured() && !Instant.now().isBefore(snapshot.expiresAt().minus(refreshAhead))) {
+            refresh();
+        }
+    }
+
+    private PublicKey keyFor(String keyId) {
+        KeySnapshot current = snapshot;
+        if (current.keys().isEmpty() || Instant.now().isAfter(current.expiresAt())) {
+            // Background refresh is failing or has not run yet
+            current = refresh();
+        }
+        PublicKey key = current.keys().get(keyId);
+        if (key == null) {
+            key = refresh().keys().get(keyId);
+        }
+        if (key == null) {
+            if (snapshot.keys().isEmpty()) {
+                throw new UncheckedIOException(new IOException("Google signing keys are unavailable"));
+            }
+            throw new MalformedJwtException("Unknown Google signing key: " + keyId);
+        }
+        return key;
+    }
+
+    // Keeps serving the previous keys when a refresh fails; Google publishes new keys well before retiring old ones
+    private KeySnapshot refresh() {
+        synchronized (refreshLock) {
+            Instant now = Instant.now();
+            if (now.isBefore(lastRefreshAttempt.plus(minRefreshInterval))) {
+                return snapshot;
+            }
+            lastRefreshAttempt = now;
+            try {
+                GoogleKeySource.Keys keys = keySource.fetch();
+                snapshot = new KeySnapshot(Map.copyOf(keys.byKeyId()), now.plus(keys.maxAge()));
+                refreshSuccess.increment();
+                log.debug("Loaded {} Google signing keys, valid until {}", keys.byKeyId().size(), snapshot.expiresAt());
+            } catch (IOException | RuntimeException e) {
+                refreshFailure.increment();
+                log.warn("Could not refresh Google signing keys; keeping {} cached keys: {}",
+                        snapshot.keys().size(), e.getMessage());
+            }
+            return snapshot;
+        }
+    }
+
+    private boolean isConfigured() {
+        return clientId != null && !clientId.isBlank();
+    }
+
+    private record KeySnapshot(Map<String, PublicKey> keys, Instant expiresAt) {
+    }
+
+    public record GoogleIdentity(String subject, String email, boolean emailVerified, String name, String pictureUrl) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.incial.crm.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads a JWK set from {@code google.jwks.uri}. HTTP(S) responses are cached for their
+ * Cache-Control max-age, less any Age header; any other location ({@code file:},
+ * {@code classpath:}) is read through Spring's resource loader and cached for
+ * {@code google.jwks.default-max-age-seconds}. One HttpClient is shared, so refreshes reuse
+ * its connection.
+ */
+@Component
+public class JwksKeySource implements GoogleKeySource {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final String location;
+    private final Duration defaultMaxAge;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    public JwksKeySource(@Value("${google.jwks.uri:https://www.googleapis.com/oauth2/v3/certs}") String location,
+                         @Value("${google.jwks.default-max-age-seconds:3600}") long defaultMaxAgeSeconds,
+                         ObjectMapper objectMapper) {
+        this.location = location;
+        this.defaultMaxAge = Duration.ofSeconds(defaultMaxAgeSeconds);
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Override
+    public Keys fetch() throws IOException {
+        if (location.startsWith("http://") || location.startsWith("https://")) {
+            return fetchOverHttp();
+        }
+        try (InputStream in = new DefaultResourceLoader().getResource(location).getInputStream()) {
+            return new Keys(parse(in), defaultMaxAge);
+        }
+    }
+
+    private Keys fetchOverHttp() throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(location)).timeout(TIMEOUT).GET().build();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching " + location, e);
+        }
+        try (InputStream in = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Fetching " + location + " returned HTTP " + response.statusCode());
+            }
+            return new Keys(parse(in), maxAge(response.headers()));
+        }
+    }
+
+    private Duration maxAge(HttpHeaders headers) {
+        Matcher matcher = MAX_AGE.matcher(headers.firstValue("Cache-Control").orElse(""));
+        if (!matcher.find()) {
+            return defaultMaxAge;
+        }
+        long seconds = Long.parseLong(matcher.group(1))
+                - headers.firstValueAsLong("Age").orElse(0);
+        return Duration.ofSeconds(Math.max(seconds, 0));
+    }
+
+    // Google only publishes RSA keys; anything else is skipped rather than failing the whole set
+    private Map<String, PublicKey> parse(InputStream in) throws IOException {
+        JsonNode keys = objectMapper.readTree(in).path("keys");
+        Map<String, PublicKey> byKeyId = new HashMap<>();
+        try {
+            KeyFactory rsa = KeyFactory.getInstance("RSA");
+            for (JsonNode jwk : keys) {
+                if (!"RSA".equals(jwk.path("kty").asText()) || !jwk.hasNonNull("kid")) {
+                    continue;
+                }
+                BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("n").asText()));
+                BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("e").asText()));
+                byKeyId.put(jwk.get("kid").asText(), rsa.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IOException("Invalid JWK set from " + location, e);
+        }
+        if (byKeyId.isEmpty()) {
+            throw new IOException("No RSA keys in JWK set from " + location);
+        }
+        return byKeyId;
+    }
+}
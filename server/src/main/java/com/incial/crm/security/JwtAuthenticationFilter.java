@@ -18,6 +18,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -53,13 +54,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7);
 
-        if (!jwtUtil.isTokenValid(token)) {
+        // Single verification: signature, expiry and claims come back together
+        Optional<VerifiedToken> verified = jwtUtil.verify(token);
+        if (verified.isEmpty()) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String email = jwtUtil.extractUserName(token);
-        String role = jwtUtil.extractRole(token);
+        String email = verified.get().email();
+        String role = verified.get().role();
 
         if (email != null &&
                 role != null &&
@@ -0,0 +1,107 @@
+package com.incial.crm.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+
+/**
+ * Bounded cache of already-verified tokens keyed by SHA-256 of the raw token, so a client that
+ * keeps sending the same bearer token skips signature verification and claim parsing.
+ * Each entry expires together with its token, so only tokens with an exp claim may be put.
+ * Backed by Caffeine, so lookups from concurrent
+ * requests don't serialise on one lock.
+ */
+@Component
+public class JwtTokenCache {
+
+    private final boolean enabled;
+    private final Cache<String, VerifiedToken> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public JwtTokenCache(@Value("${jwt.cache.enabled:true}") boolean enabled,
+                         @Value("${jwt.cache.max-size:10000}") int maxSize,
+                         MeterRegistry meterRegistry) {
+        this(enabled, maxSize, Ticker.systemTicker(), meterRegistry);
+    }
+
+    JwtTokenCache(boolean enabled, int maxSize, Ticker ticker, MeterRegistry meterRegistry) {
+        this.enabled = enabled && maxSize > 0;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxSize, 0))
+                .ticker(ticker)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return untilExpiry(token);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return untilExpiry(token);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.hits = Counter.builder("jwt.cache.requests").tag("result", "hit")
+                .description("Bearer tokens served from the verified-token cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("jwt.cache.requests").tag("result", "miss")
+                .description("Bearer tokens that needed full signature verification")
+                .register(meterRegistry);
+        meterRegistry.gauge("jwt.cache.size", Collections.emptyList(), entries, Cache::estimatedSize);
+    }
+
+    public VerifiedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        VerifiedToken cached = entries.getIfPresent(digest(token));
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (verified.expiresAt() == null) {
+            throw new IllegalArgumentException("Only tokens with an expiry can be cached");
+        }
+        if (enabled) {
+            entries.put(digest(token), verified);
+        }
+    }
+
+    // Nanoseconds the entry may live: until the token's exp claim
+    private static long untilExpiry(VerifiedToken token) {
+        return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,30 +1,62 @@
 package com.incial.crm.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
+@RequiredArgsConstructor
 public class JwtUtil {
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 24 * 2; // 2 days
 
+    private final JwtTokenCache tokenCache;
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secretString;
 
     private SecretKey key;
 
+    // Thread-safe and immutable once built, so one instance serves every request
+    private JwtParser parser;
+
+    // jwt.verify{source,result}: cache hits are timed too so the dashboard shows the real per-request cost
+    private Timer cachedTimer;
+    private Timer validTimer;
+    private Timer invalidTimer;
+
     @PostConstruct
     public void init() {
         byte[] keyBytes = Decoders.BASE64.decode(secretString);
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        this.cachedTimer = verifyTimer("cache", "valid");
+        this.validTimer = verifyTimer("signature", "valid");
+        this.invalidTimer = verifyTimer("signature", "invalid");
+    }
+
+    private Timer verifyTimer(String source, String result) {
+        return Timer.builder("jwt.verify")
+                .description("Bearer token verification")
+                .tag("source", source)
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     // Generate token WITH role
@@ -38,39 +70,61 @@ public class JwtUtil {
                 .compact();
     }
 
+    // ------------------ VERIFICATION ------------------
+
+    /**
+     * Verifies signature and expiry once and returns the claims the filter needs.
+     * Empty if the token is malformed, tampered with, expired or has no exp claim.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        long start = System.nanoTime();
+        VerifiedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(cached);
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                // Every token we issue has one; without it a token would stay valid forever
+                invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return Optional.empty();
+            }
+            VerifiedToken verified = new VerifiedToken(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    expiration.toInstant()
+            );
+            tokenCache.put(token, verified);
+            validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        }
+    }
+
     // ------------------ EXTRACTION ------------------
 
     public String extractUserName(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).map(VerifiedToken::email).orElse(null);
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return verify(token).map(VerifiedToken::role).orElse(null);
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verify(token)
+                .map(VerifiedToken::expiresAt)
+                .map(Date::from)
+                .orElse(null);
     }
 
     // ------------------ VALIDATION ------------------
 
     public boolean isTokenValid(String token) {
-        try {
-            return !extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    // ------------------ INTERNAL ------------------
-
-    private <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-
-        return resolver.apply(claims);
+        return verify(token).isPresent();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,111 @@
+package com.incial.crm.security;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.incial.crm.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits for the unauthenticated auth endpoints, by client IP and by target email, so
+ * anonymous callers cannot burn unbounded BCrypt time, SMTP sends or OTP guesses. Limits are
+ * per minute and per instance; a caller may burst up to the per-minute figure, after which
+ * tokens come back evenly. Over the limit, {@link #acquire} throws TooManyRequestsException,
+ * answered with 429 and Retry-After.
+ */
+@Component
+public class LoginThrottle {
+
+    public enum Endpoint {
+        LOGIN("login"),
+        FORGOT_PASSWORD("forgot-password"),
+        // verify-otp and change-password both guess the same OTP, so they share buckets
+        OTP("otp");
+
+        private final String tag;
+
+        Endpoint(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final boolean enabled;
+    private final Map<Endpoint, Limit> byIp = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Limit> byEmail = new EnumMap<>(Endpoint.class);
+
+    public LoginThrottle(@Value("${security.throttle.enabled:true}") boolean enabled,
+                         @Value("${security.throttle.max-keys:100000}") long maxKeys,
+                         @Value("${security.throttle.login.per-ip:20}") int loginPerIp,
+                         @Value("${security.throttle.login.per-email:5}") int loginPerEmail,
+                         @Value("${security.throttle.forgot-password.per-ip:5}") int forgotPasswordPerIp,
+                         @Value("${security.throttle.forgot-password.per-email:2}") int forgotPasswordPerEmail,
+                         @Value("${security.throttle.otp.per-ip:10}") int otpPerIp,
+                         @Value("${security.throttle.otp.per-email:5}") int otpPerEmail,
+                         MeterRegistry meterRegistry) {
+        this(enabled, maxKeys, Ticker.systemTicker(), meterRegistry, Map.of(
+                Endpoint.LOGIN, new Rates(loginPerIp, loginPerEmail),
+                Endpoint.FORGOT_PASSWORD, new Rates(forgotPasswordPerIp, forgotPasswordPerEmail),
+                Endpoint.OTP, new Rates(otpPerIp, otpPerEmail)));
+    }
+
+    LoginThrottle(boolean enabled, long maxKeys, Ticker ticker, MeterRegistry meterRegistry,
+                  Map<Endpoint, Rates> perMinute) {
+        this.enabled = enabled;
+        for (Endpoint endpoint : Endpoint.values()) {
+            Rates rates = perMinute.get(endpoint);
+            byIp.put(endpoint, new Limit(endpoint, "ip", rates.perIp(), maxKeys, ticker, meterRegistry));
+            byEmail.put(endpoint, new Limit(endpoint, "email", rates.perEmail(), maxKeys, ticker, meterRegistry));
+        }
+    }
+
+    /**
+     * Takes one token from the IP bucket and, when an email is given, from the email bucket.
+     * Throws TooManyRequestsException if either is empty.
+     */
+    public void acquire(Endpoint endpoint, String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+        byIp.get(endpoint).acquire(clientIp == null ? "unknown" : clientIp);
+        if (email != null && !email.isBlank()) {
+            byEmail.get(endpoint).acquire(email.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /** Requests per minute for one endpoint. */
+    record Rates(int perIp, int perEmail) {
+    }
+
+    private static final class Limit {
+
+        private final TokenBucketLimiter limiter;
+        private final Counter rejected;
+
+        Limit(Endpoint endpoint, String key, int perMinute, long maxKeys, Ticker ticker, MeterRegistry meterRegistry) {
+            this.limiter = new TokenBucketLimiter(perMinute, Duration.ofMinutes(1).dividedBy(perMinute), maxKeys, ticker);
+            Tags tags = Tags.of("endpoint", endpoint.tag, "key", key);
+            this.rejected = Counter.builder("auth.throttled")
+                    .description("Auth requests rejected with 429 by the login throttle")
+                    .tags(tags)
+                    .register(meterRegistry);
+            meterRegistry.gauge("auth.throttle.buckets", tags, limiter, TokenBucketLimiter::size);
+        }
+
+        void acquire(String key) {
+            long waitNanos = limiter.tryAcquire(key);
+            if (waitNanos > 0) {
+                rejected.increment();
+                throw new TooManyRequestsException("Too many attempts. Please try again later.",
+                        Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.incial.crm.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool for BCrypt work (login, register, password change), so a burst of logins
+ * queues here instead of occupying Tomcat workers, and never takes more than
+ * {@code security.password.hashing.threads} cores. When the queue is full, {@link #submit}
+ * throws RejectedExecutionException right away; GlobalExceptionHandler answers 503.
+ */
+@Component
+@Slf4j
+public class PasswordHashing {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PasswordHashing(@Value("${security.password.hashing.threads:0}") int threads,
+                           @Value("${security.password.hashing.queue-capacity:100}") int queueCapacity,
+                           MeterRegistry meterRegistry) {
+        // Default: half the cores, leaving the rest for regular API traffic
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Password operations turned away because the hashing queue was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("password.hashing.queued", Collections.emptyList(), executor,
+                pool -> pool.getQueue().size());
+        log.info("Password hashing pool: {} threads, queue of {}", poolSize, queueCapacity);
+    }
+
+    /** Runs {@code work} on the hashing pool; throws RejectedExecutionException when it is saturated. */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RejectedExecutionException("Too many password operations in progress; retry shortly", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.incial.crm.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-key token buckets of {@code capacity} tokens, refilled one every {@code refillEvery}.
+ * <p>
+ * Each bucket is a single AtomicLong holding the time at which it will be full again (GCRA,
+ * equivalent to a token bucket), so taking a token is one CAS with no lock. Buckets live in a
+ * Caffeine map, whose lock striping keeps unrelated keys from contending. It holds at most
+ * {@code maxKeys} buckets and drops a bucket once it has been idle long enough to be full
+ * again, which is exactly when forgetting it changes nothing.
+ */
+final class TokenBucketLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+
+    TokenBucketLimiter(int capacity, Duration refillEvery, long maxKeys, Ticker ticker) {
+        if (capacity < 1 || refillEvery.isNegative() || refillEvery.isZero()) {
+            throw new IllegalArgumentException("Token bucket needs capacity >= 1 and a positive refill interval");
+        }
+        this.intervalNanos = refillEvery.toNanos();
+        this.burstNanos = intervalNanos * capacity;
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .ticker(ticker)
+                .build();
+    }
+
+    /** Takes a token for {@code key}: 0 when allowed, otherwise nanoseconds until one is available. */
+    long tryAcquire(String key) {
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(ticker.read()));
+        while (true) {
+            long now = ticker.read();
+            long current = fullAt.get();
+            // Compared by difference: nanoTime values may wrap
+            long next = (current - now > 0 ? current : now) + intervalNanos;
+            long backlog = next - now;
+            if (backlog > burstNanos) {
+                return backlog - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    long size() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,10 @@
+package com.incial.crm.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have been checked. Immutable, so the same
+ * instance can be handed out from the verified-token cache.
+ */
+public record VerifiedToken(String email, String role, Instant expiresAt) {
+}
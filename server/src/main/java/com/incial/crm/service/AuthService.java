@@ -1,9 +1,5 @@
 package com.incial.crm.service;
 
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 import com.incial.crm.dto.GoogleLoginRequest;
 import com.incial.crm.dto.LoginRequest;
 import com.incial.crm.dto.LoginResponse;
@@ -12,25 +8,25 @@ import com.incial.crm.dto.RegisterResponse;
 import com.incial.crm.dto.UserDto;
 import com.incial.crm.entity.User;
 import com.incial.crm.repository.UserRepository;
+import com.incial.crm.security.GoogleTokenVerifier;
+import com.incial.crm.security.GoogleTokenVerifier.GoogleIdentity;
 import com.incial.crm.security.JwtUtil;
+import com.incial.crm.security.PasswordHashing;
 import lombok.RequiredArgsConstructor;
 import com.incial.crm.dto.ForgotPasswordRequest;
 import com.incial.crm.dto.VerifyOtpRequest;
 import com.incial.crm.dto.ChangePasswordRequest;
 import com.incial.crm.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.security.GeneralSecurityException;
-import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -42,12 +38,29 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final PasswordEncoder passwordEncoder;
     private final OtpService otpService;
+    private final UserDirectory userDirectory;
+    private final GoogleTokenVerifier googleTokenVerifier;
+    private final PasswordHashing passwordHashing;
+
+    /*
+     * register, login and changePassword hash or check a password, so they run on the bounded
+     * PasswordHashing pool instead of the request thread. A full pool fails fast with
+     * RejectedExecutionException (503) rather than tying up Tomcat workers.
+     */
+
+    public CompletableFuture<RegisterResponse> register(RegisterRequest request) {
+        return passwordHashing.submit(() -> registerNow(request));
+    }
 
-    @Value("${google.client.id}")
-    private String googleClientId;
+    public CompletableFuture<LoginResponse> login(LoginRequest request) {
+        return passwordHashing.submit(() -> loginNow(request));
+    }
 
+    public CompletableFuture<ApiResponse> changePassword(ChangePasswordRequest request) {
+        return passwordHashing.submit(() -> changePasswordNow(request));
+    }
 
-    public RegisterResponse register(RegisterRequest request) {
+    private RegisterResponse registerNow(RegisterRequest request) {
 
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("User with email " + request.getEmail() + " already exists");
@@ -73,6 +86,7 @@ public class AuthService {
                 .build();
 
         User savedUser = userRepository.save(user);
+        userDirectory.evictAfterCommit(savedUser.getId(), savedUser.getEmail());
 
         UserDto userDto = UserDto.builder()
                 .id(savedUser.getId())
@@ -88,7 +102,7 @@ public class AuthService {
                 .build();
     }
 
-    public LoginResponse login(LoginRequest request) {
+    private LoginResponse loginNow(LoginRequest request) {
         try {
             authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -126,26 +140,13 @@ public class AuthService {
 
     public LoginResponse loginWithGoogle(GoogleLoginRequest request) {
         try {
-            if (googleClientId == null || googleClientId.trim().isEmpty()) {
-                throw new IllegalStateException("Google authentication is not properly configured. Please contact the administrator.");
-            }
-
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                    new NetHttpTransport(),
-                    GsonFactory.getDefaultInstance())
-                    .setAudience(Collections.singletonList(googleClientId))
-                    .build();
-
-            GoogleIdToken idToken = verifier.verify(request.getCredential());
-            if (idToken == null) {
-                throw new RuntimeException("Invalid Google ID token");
-            }
+            // Shared verifier with cached signing keys: a local signature check, no call to Google
+            GoogleIdentity identity = googleTokenVerifier.verify(request.getCredential())
+                    .orElseThrow(() -> new RuntimeException("Invalid Google ID token"));
 
-            GoogleIdToken.Payload payload = idToken.getPayload();
-            String googleId = payload.getSubject();
-            String email = payload.getEmail();
-            String name = (String) payload.get("name");
-            String pictureUrl = (String) payload.get("picture");
+            String googleId = identity.subject();
+            String email = identity.email();
+            String pictureUrl = identity.pictureUrl();
 
             // Find user by email - user must be pre-registered
             User user = userRepository.findByEmail(email).orElseThrow(
@@ -164,6 +165,7 @@ public class AuthService {
             }
             if (needsUpdate) {
                 userRepository.save(user);
+                userDirectory.evictAfterCommit(user.getId(), user.getEmail());
             }
 
             String token = jwtUtil.generateToken(user.getEmail(),user.getRole());
@@ -184,7 +186,7 @@ public class AuthService {
                     .user(userDto)
                     .build();
 
-        } catch (GeneralSecurityException | IOException e) {
+        } catch (IOException e) {
             throw new RuntimeException("Google authentication failed. Please try again.");
         }
     }
@@ -216,8 +218,8 @@ public class AuthService {
                 .build();
     }
 
-    @Transactional
-    public ApiResponse changePassword(ChangePasswordRequest request) {
+    // The OTP check (its own transaction) runs before the hash, so bad OTPs cost no BCrypt work
+    private ApiResponse changePasswordNow(ChangePasswordRequest request) {
 
         boolean isValid = otpService.verifyOtp(
                 request.getEmail(),
@@ -234,6 +236,7 @@ public class AuthService {
                 passwordEncoder.encode(request.getNewPassword())
         );
         userRepository.save(user);
+        userDirectory.evictAfterCommit(user.getId(), user.getEmail());
 
         return ApiResponse.builder()
                 .statusCode(200)
@@ -0,0 +1,166 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.ChangeSetDto;
+import com.incial.crm.entity.Tombstone;
+import com.incial.crm.repository.TombstoneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync shared by tasks, CRM entries and meetings.
+ * <p>
+ * Upserts and tombstones are each read with a keyset on (timestamp, id), so rows written in
+ * the same millisecond are never skipped. Because a slow transaction can commit a row whose
+ * timestamp is older than rows already returned, the cursor only advances past rows that are
+ * at least {@code sync.commit-grace-seconds} old; newer rows are returned again on the next
+ * call, which clients apply idempotently.
+ */
+@Service
+@Slf4j
+public class ChangeFeedService {
+
+    static final int DEFAULT_PAGE_SIZE = 500;
+    static final int MAX_PAGE_SIZE = 1000;
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TombstoneRepository tombstoneRepository;
+    private final Duration commitGrace;
+    private final Duration tombstoneRetention;
+
+    public ChangeFeedService(TombstoneRepository tombstoneRepository,
+                             @Value("${sync.commit-grace-seconds:10}") long commitGraceSeconds,
+                             @Value("${sync.tombstone-retention-days:30}") long tombstoneRetentionDays) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.commitGrace = Duration.ofSeconds(commitGraceSeconds);
+        this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
+    }
+
+    /** Records a deletion; call inside the deleting transaction. */
+    public void recordDeletion(String entityType, Long entityId) {
+        tombstoneRepository.save(Tombstone.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .build());
+    }
+
+    /**
+     * Builds one page of changes. Callers run this in a read-only transaction and pass their own
+     * keyset query plus accessors, e.g. {@code (at, id, page) -> repo.findChangedSince(at, id, page)}.
+     */
+    public <E, D> ChangeSetDto<D> changesSince(String entityType, String since, Integer limit,
+                                               ChangedSinceQuery<E> query,
+                                               Function<E, LocalDateTime> updatedAt,
+                                               Function<E, Long> id,
+                                               Function<E, D> toDto) {
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.minus(commitGrace);
+        SyncCursor cursor = SyncCursor.decode(since);
+
+        // Tombstones older than the retention window are gone, so an old cursor cannot see every delete
+        if (cursor != null && cursor.issuedAt().isBefore(now.minus(tombstoneRetention).plus(commitGrace))) {
+            return ChangeSetDto.<D>builder()
+                    .upserts(List.of())
+                    .deletedIds(List.of())
+                    .cursor(new SyncCursor(horizon, 0L, horizon, 0L, now).encode())
+                    .resetRequired(true)
+                    .build();
+        }
+        if (cursor == null) {
+            cursor = new SyncCursor(START, 0L, START, 0L, now);
+        }
+
+        List<E> rows = query.find(cursor.updatedAt(), cursor.updatedId(), PageRequest.of(0, pageSize + 1));
+        boolean moreRows = rows.size() > pageSize;
+        if (moreRows) {
+            rows = rows.subList(0, pageSize);
+        }
+        List<Tombstone> tombstones = tombstoneRepository.findChangedSince(entityType,
+                cursor.deletedAt(), cursor.deletedId(), PageRequest.of(0, pageSize + 1));
+        boolean moreTombstones = tombstones.size() > pageSize;
+        if (moreTombstones) {
+            tombstones = tombstones.subList(0, pageSize);
+        }
+
+        LocalDateTime nextUpdatedAt = cursor.updatedAt();
+        Long nextUpdatedId = cursor.updatedId();
+        for (E row : rows) {
+            // A full page always advances to its last row, otherwise paging could stall inside the grace window
+            if (moreRows || !updatedAt.apply(row).isAfter(horizon)) {
+                nextUpdatedAt = updatedAt.apply(row);
+                nextUpdatedId = id.apply(row);
+            }
+        }
+        LocalDateTime nextDeletedAt = cursor.deletedAt();
+        Long nextDeletedId = cursor.deletedId();
+        for (Tombstone tombstone : tombstones) {
+            if (moreTombstones || !tombstone.getDeletedAt().isAfter(horizon)) {
+                nextDeletedAt = tombstone.getDeletedAt();
+                nextDeletedId = tombstone.getId();
+            }
+        }
+
+        return ChangeSetDto.<D>builder()
+                .upserts(rows.stream().map(toDto).collect(Collectors.toList()))
+                .deletedIds(tombstones.stream().map(Tombstone::getEntityId).distinct().collect(Collectors.toList()))
+                .cursor(new SyncCursor(nextUpdatedAt, nextUpdatedId, nextDeletedAt, nextDeletedId, now).encode())
+                .hasMore(moreRows || moreTombstones)
+                .build();
+    }
+
+    @Scheduled(cron = "${sync.tombstone-purge-cron:0 30 3 * * *}")
+    public void purgeExpiredTombstones() {
+        int purged = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.info("Purged {} expired tombstones", purged);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ChangedSinceQuery<E> {
+        List<E> find(LocalDateTime updatedAt, Long id, PageRequest page);
+    }
+
+    record SyncCursor(LocalDateTime updatedAt, Long updatedId,
+                      LocalDateTime deletedAt, Long deletedId,
+                      LocalDateTime issuedAt) {
+
+        private static final String VERSION = "S1";
+
+        String encode() {
+            String raw = String.join("|", VERSION, updatedAt.toString(), updatedId.toString(),
+                    deletedAt.toString(), deletedId.toString(), issuedAt.toString());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SyncCursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|");
+                if (parts.length != 6 || !parts[0].equals(VERSION)) {
+                    throw new IllegalArgumentException("Unrecognised sync cursor");
+                }
+                return new SyncCursor(LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]),
+                        LocalDateTime.parse(parts[3]), Long.valueOf(parts[4]),
+                        LocalDateTime.parse(parts[5]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid sync cursor: " + cursor, e);
+            }
+        }
+    }
+}
@@ -1,15 +1,29 @@
 package com.incial.crm.service;
 
+import com.incial.crm.dto.AnalyticsBucketDto;
+import com.incial.crm.dto.ChangeSetDto;
+import com.incial.crm.dto.CrmAnalyticsDto;
 import com.incial.crm.dto.CrmEntryDto;
+import com.incial.crm.dto.Versioned;
 import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.entity.Tombstone;
 import com.incial.crm.repository.CrmEntryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -17,7 +31,36 @@ public class CrmService {
 
     private final CrmEntryRepository crmEntryRepository;
     private final UserService userService;
+    private final StreamingExporter streamingExporter;
+    private final ChangeFeedService changeFeedService;
+    private final LiveEventService liveEventService;
 
+    private static final Set<String> WON_STATUSES = Set.of("onboarded", "completed");
+    private static final LocalDate UNBOUNDED_FROM = LocalDate.of(1900, 1, 1);
+    private static final LocalDate UNBOUNDED_TO = LocalDate.of(9999, 12, 31);
+
+    private static final List<StreamingExporter.Column<CrmEntryDto>> EXPORT_COLUMNS = List.of(
+            new StreamingExporter.Column<>("id", CrmEntryDto::getId),
+            new StreamingExporter.Column<>("referenceId", CrmEntryDto::getReferenceId),
+            new StreamingExporter.Column<>("company", CrmEntryDto::getCompany),
+            new StreamingExporter.Column<>("contactName", CrmEntryDto::getContactName),
+            new StreamingExporter.Column<>("email", CrmEntryDto::getEmail),
+            new StreamingExporter.Column<>("phone", CrmEntryDto::getPhone),
+            new StreamingExporter.Column<>("address", CrmEntryDto::getAddress),
+            new StreamingExporter.Column<>("status", CrmEntryDto::getStatus),
+            new StreamingExporter.Column<>("dealValue", CrmEntryDto::getDealValue),
+            new StreamingExporter.Column<>("assignedTo", CrmEntryDto::getAssignedTo),
+            new StreamingExporter.Column<>("lastContact", CrmEntryDto::getLastContact),
+            new StreamingExporter.Column<>("nextFollowUp", CrmEntryDto::getNextFollowUp),
+            new StreamingExporter.Column<>("tags", CrmEntryDto::getTags),
+            new StreamingExporter.Column<>("work", CrmEntryDto::getWork),
+            new StreamingExporter.Column<>("leadSources", CrmEntryDto::getLeadSources),
+            new StreamingExporter.Column<>("socials", CrmEntryDto::getSocials),
+            new StreamingExporter.Column<>("notes", CrmEntryDto::getNotes),
+            new StreamingExporter.Column<>("lastUpdatedBy", CrmEntryDto::getLastUpdatedBy),
+            new StreamingExporter.Column<>("lastUpdatedAt", CrmEntryDto::getLastUpdatedAt));
+
+    @Transactional(readOnly = true)
     public Map<String, List<CrmEntryDto>> getAllEntries() {
         List<CrmEntry> entries = crmEntryRepository.findAll();
         List<CrmEntryDto> dtoList = entries.stream()
@@ -29,6 +72,20 @@ public class CrmService {
         return response;
     }
 
+    /** The entries with their ETag from one read-only transaction; see {@link TaskService#getAllTasks(Predicate)}. */
+    @Transactional(readOnly = true)
+    public Versioned<Map<String, List<CrmEntryDto>>> getAllEntries(Predicate<String> notModified) {
+        String etag = getEntriesVersion();
+        return new Versioned<>(etag, notModified.test(etag) ? null : getAllEntries());
+    }
+
+    /** ETag for {@link #getAllEntries()}; take it before loading the entries. */
+    @Transactional(readOnly = true)
+    public String getEntriesVersion() {
+        return "\"crm-" + crmEntryRepository.findCollectionVersion().fingerprint() + "\"";
+    }
+
+    @Transactional(readOnly = true)
     public List<CrmEntryDto> getOnboardedEntries() {
         List<CrmEntry> entries = crmEntryRepository.findOnboardedEntries();
         return entries.stream()
@@ -36,6 +93,7 @@ public class CrmService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<CrmEntryDto> getCompletedEntries() {
         List<CrmEntry> entries = crmEntryRepository.findCompletedEntries();
         return entries.stream()
@@ -43,6 +101,7 @@ public class CrmService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<CrmEntryDto> getDroppedEntries() {
         List<CrmEntry> entries = crmEntryRepository.findDroppedEntries();
         return entries.stream()
@@ -50,9 +109,74 @@ public class CrmService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Pipeline analytics aggregated in the database. Entries are filtered by activity date
+     * (last contact, else last update) when a range is given; either bound may be omitted.
+     */
+    @Transactional(readOnly = true)
+    public CrmAnalyticsDto getAnalytics(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        boolean ranged = from != null || to != null;
+        LocalDate fromDate = from != null ? from : UNBOUNDED_FROM;
+        LocalDate toDate = to != null ? to : UNBOUNDED_TO;
+
+        List<AnalyticsBucketDto> byStatus = toBuckets(crmEntryRepository.aggregateByStatus(ranged, fromDate, toDate));
+
+        long totalEntries = 0;
+        long wonDeals = 0;
+        BigDecimal totalDealValue = BigDecimal.ZERO;
+        BigDecimal wonDealValue = BigDecimal.ZERO;
+        for (AnalyticsBucketDto bucket : byStatus) {
+            totalEntries += bucket.getCount();
+            totalDealValue = totalDealValue.add(bucket.getDealValue());
+            if (WON_STATUSES.contains(bucket.getKey())) {
+                wonDeals += bucket.getCount();
+                wonDealValue = wonDealValue.add(bucket.getDealValue());
+            }
+        }
+
+        return CrmAnalyticsDto.builder()
+                .from(from)
+                .to(to)
+                .totalEntries(totalEntries)
+                .totalDealValue(totalDealValue)
+                .wonDeals(wonDeals)
+                .wonDealValue(wonDealValue)
+                .conversionRate(totalEntries > 0 ? (wonDeals * 100.0) / totalEntries : 0)
+                .averageDealValue(totalEntries > 0
+                        ? totalDealValue.divide(BigDecimal.valueOf(totalEntries), 2, RoundingMode.HALF_UP)
+                        : BigDecimal.ZERO)
+                .byStatus(byStatus)
+                .byLeadSource(toBuckets(crmEntryRepository.aggregateByLeadSource(ranged, fromDate, toDate)))
+                .byAssignee(toBuckets(crmEntryRepository.aggregateByAssignee(ranged, fromDate, toDate)))
+                .byMonth(toBuckets(crmEntryRepository.aggregateByMonth(ranged, fromDate, toDate)))
+                .build();
+    }
+
+    /** CRM entries created, updated or deleted since the cursor; see ChangeFeedService. */
+    @Transactional(readOnly = true)
+    public ChangeSetDto<CrmEntryDto> getChangesSince(String since, Integer limit) {
+        return changeFeedService.changesSince(Tombstone.TYPE_CRM, since, limit,
+                crmEntryRepository::findChangedSince, CrmEntry::getLastUpdatedAt, CrmEntry::getId, this::convertToDto);
+    }
+
+    /**
+     * Streams every CRM entry to {@code out} without materialising the full list. Called from the
+     * response-writing thread, so the transaction (and JDBC cursor) lives for the whole export.
+     */
+    @Transactional(readOnly = true)
+    public long exportEntries(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<CrmEntry> entries = crmEntryRepository.streamAllForExport()) {
+            return streamingExporter.write(entries, this::convertToDto, format, EXPORT_COLUMNS, out);
+        }
+    }
+
     public CrmEntryDto createEntry(CrmEntryDto dto) {
         CrmEntry entry = convertToEntity(dto);
         CrmEntry saved = crmEntryRepository.save(entry);
+        liveEventService.publishAfterCommit(Tombstone.TYPE_CRM, saved.getId(), LiveEventService.OP_CREATED, saved::getLastUpdatedAt);
         return convertToDto(saved);
     }
 
@@ -62,22 +186,28 @@ public class CrmService {
         
         updateEntityFromDto(entry, dto);
         CrmEntry updated = crmEntryRepository.save(entry);
+        liveEventService.publishAfterCommit(Tombstone.TYPE_CRM, updated.getId(), LiveEventService.OP_UPDATED, updated::getLastUpdatedAt);
         return convertToDto(updated);
     }
 
+    @Transactional
     public void deleteEntry(Long id) {
         if (!crmEntryRepository.existsById(id)) {
             throw new RuntimeException("CRM Entry not found with id: " + id);
         }
         crmEntryRepository.deleteById(id);
+        changeFeedService.recordDeletion(Tombstone.TYPE_CRM, id);
+        liveEventService.publishAfterCommit(Tombstone.TYPE_CRM, id, LiveEventService.OP_DELETED, null);
     }
 
+    @Transactional(readOnly = true)
     public CrmEntryDto getCrmDetails(Long id) {
         CrmEntry entry = crmEntryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("CRM Entry not found with id: " + id));
         return convertToDto(entry);
     }
 
+    @Transactional(readOnly = true)
     public CrmEntryDto getClientCrmDetails(String userEmail) {
         // Get user to find their linked CRM ID
         var userDto = userService.getUserByEmail(userEmail);
@@ -87,7 +217,18 @@ public class CrmService {
         return getCrmDetails(userDto.getClientCrmId());
     }
 
-    private CrmEntryDto convertToDto(CrmEntry entity) {
+    private List<AnalyticsBucketDto> toBuckets(List<CrmEntryRepository.AnalyticsBucket> rows) {
+        return rows.stream()
+                .map(row -> AnalyticsBucketDto.builder()
+                        .key(row.getBucket())
+                        .count(row.getEntries() != null ? row.getEntries() : 0)
+                        .dealValue(row.getDealValue() != null ? row.getDealValue() : BigDecimal.ZERO)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    // Package-private for DtoConversionBenchmark (src/jmh)
+    CrmEntryDto convertToDto(CrmEntry entity) {
         return CrmEntryDto.builder()
                 .id(entity.getId())
                 .company(entity.getCompany())
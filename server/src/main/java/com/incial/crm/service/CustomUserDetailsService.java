@@ -3,17 +3,31 @@ package com.incial.crm.service;
 import com.incial.crm.entity.User;
 import com.incial.crm.repository.UserRepository;
 import com.incial.crm.security.CustomUserDetails;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
+    private final Counter rehashed;
+
+    public CustomUserDetailsService(UserRepository userRepository, UserDirectory userDirectory,
+                                    MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userDirectory = userDirectory;
+        this.rehashed = Counter.builder("password.rehash")
+                .description("Stored password hashes upgraded to the current algorithm and cost at login")
+                .register(meterRegistry);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -21,4 +35,17 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
         return new CustomUserDetails(user);
     }
+
+    /** Called by DaoAuthenticationProvider after a successful login whose stored hash is outdated. */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPasswordHash) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userDetails.getUsername()));
+        user.setPasswordHash(newPasswordHash);
+        userRepository.save(user);
+        userDirectory.evictAfterCommit(user.getId(), user.getEmail());
+        rehashed.increment();
+        log.debug("Upgraded password hash for user {}", user.getId());
+        return new CustomUserDetails(user);
+    }
 }
@@ -0,0 +1,74 @@
+package com.incial.crm.service;
+
+import com.incial.crm.entity.Otp;
+import com.incial.crm.repository.OtpRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * OTPs in the {@code otps} table, shared by every instance. Attempts and consumption are
+ * conditional UPDATEs, so concurrent guesses cannot exceed {@code otp.max-attempts} and a code
+ * is accepted at most once. Expired rows are deleted in chunks of {@code otp.purge-chunk-size},
+ * each in its own short transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "database", matchIfMissing = true)
+public class DatabaseOtpStore implements OtpStore {
+
+    private final OtpRepository otpRepository;
+    private final int maxAttempts;
+    private final int purgeChunkSize;
+
+    public DatabaseOtpStore(OtpRepository otpRepository,
+                            @Value("${otp.max-attempts:5}") int maxAttempts,
+                            @Value("${otp.purge-chunk-size:500}") int purgeChunkSize) {
+        this.otpRepository = otpRepository;
+        this.maxAttempts = maxAttempts;
+        this.purgeChunkSize = purgeChunkSize;
+    }
+
+    @Override
+    @Transactional
+    public void put(String email, String code, LocalDateTime expiresAt) {
+        otpRepository.deleteByEmail(email);
+        otpRepository.save(Otp.builder()
+                .email(email)
+                .otpCode(code)
+                .expiresAt(expiresAt)
+                .verified(false)
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public Result verify(String email, String code, LocalDateTime now) {
+        Optional<Otp> live = otpRepository.findFirstByEmailAndVerifiedFalseOrderByIdDesc(email);
+        if (live.isEmpty() || !live.get().getExpiresAt().isAfter(now)) {
+            return Result.EXPIRED;
+        }
+        Otp otp = live.get();
+        if (otpRepository.recordAttempt(otp.getId(), maxAttempts) == 0) {
+            return Result.LOCKED;
+        }
+        if (!OtpStore.codesMatch(otp.getOtpCode(), code)) {
+            return Result.INVALID;
+        }
+        return otpRepository.markVerified(otp.getId()) == 1 ? Result.VALID : Result.EXPIRED;
+    }
+
+    @Override
+    public int purgeExpired(LocalDateTime now) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = otpRepository.deleteExpiredChunk(now, purgeChunkSize);
+            total += deleted;
+        } while (deleted == purgeChunkSize);
+        return total;
+    }
+}
@@ -0,0 +1,288 @@
+package com.incial.crm.service;
+
+import com.incial.crm.entity.EmailOutbox;
+import com.incial.crm.entity.Task;
+import com.incial.crm.repository.EmailOutboxRepository;
+import com.incial.crm.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers email_outbox entries on a small bounded worker pool. Entries are submitted right
+ * after the writing transaction commits; a periodic sweep picks up retries, entries rejected
+ * by a full queue and anything left behind by a restart.
+ * <p>
+ * Task assignments are held for {@code email.digest.window-seconds}. When the first one for a
+ * recipient is dispatched it absorbs the recipient's other pending assignments, up to
+ * {@code email.digest.max-tasks} tasks, and goes out as a single digest. A window of 0 sends
+ * each assignment on its own, as soon as it commits.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(2);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final int SWEEP_BATCH_SIZE = 50;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final TaskRepository taskRepository;
+    private final EmailService emailService;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService digestTimer;
+    private final Set<String> digestsScheduled = ConcurrentHashMap.newKeySet();
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration digestWindow;
+    private final int digestMaxTasks;
+    private final Counter coalesced;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 TaskRepository taskRepository,
+                                 EmailService emailService,
+                                 @Value("${email.outbox.workers:2}") int workers,
+                                 @Value("${email.outbox.queue-capacity:500}") int queueCapacity,
+                                 @Value("${email.outbox.max-attempts:6}") int maxAttempts,
+                                 @Value("${email.outbox.base-backoff-seconds:30}") long baseBackoffSeconds,
+                                 @Value("${email.digest.window-seconds:60}") long digestWindowSeconds,
+                                 @Value("${email.digest.max-tasks:25}") int digestMaxTasks,
+                                 MeterRegistry meterRegistry) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.taskRepository = taskRepository;
+        this.emailService = emailService;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = Duration.ofSeconds(baseBackoffSeconds);
+        this.digestWindow = Duration.ofSeconds(Math.max(digestWindowSeconds, 0));
+        this.digestMaxTasks = Math.max(digestMaxTasks, 1);
+        this.coalesced = Counter.builder("email.coalesced")
+                .description("Task assignment emails folded into another recipient digest")
+                .register(meterRegistry);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.digestTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-digest-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** When a newly queued task assignment becomes due. */
+    public LocalDateTime digestDueAt(LocalDateTime now) {
+        return now.plus(digestWindow);
+    }
+
+    /**
+     * Submits a task assignment once its digest window has passed. One timer per recipient is
+     * enough: that dispatch merges whatever else is pending, and the sweep sends any overflow.
+     */
+    public void submitAfterDigestWindow(Long outboxId, String recipient) {
+        if (digestWindow.isZero()) {
+            submit(outboxId);
+            return;
+        }
+        if (!digestsScheduled.add(recipient)) {
+            return;
+        }
+        try {
+            digestTimer.schedule(() -> {
+                digestsScheduled.remove(recipient);
+                submit(outboxId);
+            }, digestWindow.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the entry stays PENDING for the sweep
+            digestsScheduled.remove(recipient);
+        }
+    }
+
+    public void submit(Long outboxId) {
+        try {
+            executor.execute(() -> dispatch(outboxId));
+        } catch (RejectedExecutionException e) {
+            // Queue is full (or shutting down); the entry stays PENDING and the sweep will retry it
+            log.warn("Email outbox queue full, deferring entry {} to the next sweep", outboxId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.sweep-interval-ms:30000}")
+    public void sweep() {
+        List<Long> dueIds = emailOutboxRepository.findDueIds(LocalDateTime.now(), PageRequest.ofSize(SWEEP_BATCH_SIZE));
+        // Only top up what the queue can take so a backlog never piles onto the executor
+        int capacity = executor.getQueue().remainingCapacity();
+        dueIds.stream().limit(capacity).forEach(this::submit);
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeFinished() {
+        int removed = emailOutboxRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(7));
+        if (removed > 0) {
+            log.info("Purged {} finished email outbox entries", removed);
+        }
+    }
+
+    void dispatch(Long outboxId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (emailOutboxRepository.claim(outboxId, now, now.plus(CLAIM_LEASE)) == 0) {
+            return; // Already delivered, not yet due, or claimed by another worker
+        }
+
+        Optional<EmailOutbox> claimed = emailOutboxRepository.findById(outboxId);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        EmailOutbox entry = claimed.get();
+
+        try {
+            List<EmailOutbox> merged = isTaskAssignment(entry) && !digestWindow.isZero() ? coalesce(entry) : List.of();
+            if (!deliver(entry, merged)) {
+                emailOutboxRepository.markAttemptFailed(outboxId, EmailOutbox.STATUS_CANCELLED, now, "Task no longer exists");
+                return;
+            }
+            emailOutboxRepository.markSent(outboxId, LocalDateTime.now());
+        } catch (Exception e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            if (error.length() > 1000) {
+                error = error.substring(0, 1000);
+            }
+            if (entry.getAttempts() >= maxAttempts) {
+                log.error("Giving up on email outbox entry {} to {} after {} attempts", outboxId, entry.getRecipient(), entry.getAttempts(), e);
+                emailOutboxRepository.markAttemptFailed(outboxId, EmailOutbox.STATUS_FAILED, LocalDateTime.now(), error);
+            } else {
+                LocalDateTime retryAt = LocalDateTime.now().plus(backoff(entry.getAttempts()));
+                log.warn("Email outbox entry {} to {} failed (attempt {}), retrying at {}: {}",
+                         outboxId, entry.getRecipient(), entry.getAttempts(), retryAt, error);
+                emailOutboxRepository.markAttemptFailed(outboxId, EmailOutbox.STATUS_PENDING, retryAt, error);
+            }
+        }
+    }
+
+    Duration backoff(int attempts) {
+        // 30s, 1m, 2m, 4m, ... capped at MAX_BACKOFF
+        Duration delay = baseBackoff.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    /**
+     * Merges the recipient's untouched pending assignments into {@code digest} and returns every
+     * entry merged into it so far, including those from an earlier attempt. The merge is a
+     * single UPDATE, so a crash before sending loses nothing: the digest is retried and picks
+     * its merged entries up again.
+     */
+    private List<EmailOutbox> coalesce(EmailOutbox digest) {
+        List<EmailOutbox> merged = emailOutboxRepository.findByMergedInto(digest.getId());
+        int size = taskIdsOf(digest).size() + merged.stream().mapToInt(entry -> taskIdsOf(entry).size()).sum();
+        List<Long> chosen = new ArrayList<>();
+        if (size < digestMaxTasks) {
+            for (EmailOutbox candidate : emailOutboxRepository.findDigestCandidates(
+                    digest.getRecipient(), digest.getId(), PageRequest.ofSize(digestMaxTasks))) {
+                int tasks = taskIdsOf(candidate).size();
+                if (size + tasks > digestMaxTasks) {
+                    break;
+                }
+                size += tasks;
+                chosen.add(candidate.getId());
+            }
+        }
+        if (chosen.isEmpty()) {
+            return merged;
+        }
+        int count = emailOutboxRepository.mergeInto(chosen, digest.getId());
+        if (count == 0) {
+            return merged;
+        }
+        coalesced.increment(count);
+        log.debug("Merged {} email outbox entries into digest {} for {}", count, digest.getId(), digest.getRecipient());
+        return emailOutboxRepository.findByMergedInto(digest.getId());
+    }
+
+    private boolean deliver(EmailOutbox entry, List<EmailOutbox> merged) {
+        if (EmailOutbox.TYPE_TASK_ASSIGNMENT.equals(entry.getType()) && merged.isEmpty()) {
+            Optional<Task> task = taskRepository.findById(entry.getTaskId());
+            if (task.isEmpty()) {
+                return false;
+            }
+            emailService.sendTaskAssignmentEmail(entry.getRecipient(), task.get(), entry.getAssignedBy());
+            return true;
+        }
+        if (isTaskAssignment(entry)) {
+            Set<Long> taskIds = new LinkedHashSet<>(taskIdsOf(entry));
+            merged.forEach(other -> taskIds.addAll(taskIdsOf(other)));
+            // Tasks deleted since they were assigned are left out; cancel only when none remain
+            List<Task> tasks = new ArrayList<>(taskRepository.findAllById(new ArrayList<>(taskIds)));
+            if (tasks.isEmpty()) {
+                return false;
+            }
+            String assignedBy = assignedBy(entry, merged);
+            if (tasks.size() == 1) {
+                emailService.sendTaskAssignmentEmail(entry.getRecipient(), tasks.get(0), assignedBy);
+                return true;
+            }
+            tasks.sort(Comparator.comparing(Task::getId));
+            emailService.sendTaskAssignmentBatchEmail(entry.getRecipient(), tasks, assignedBy);
+            return true;
+        }
+        throw new IllegalStateException("Unknown email outbox type: " + entry.getType());
+    }
+
+    private static boolean isTaskAssignment(EmailOutbox entry) {
+        return EmailOutbox.TYPE_TASK_ASSIGNMENT.equals(entry.getType())
+                || EmailOutbox.TYPE_TASK_ASSIGNMENT_BATCH.equals(entry.getType());
+    }
+
+    private static List<Long> taskIdsOf(EmailOutbox entry) {
+        if (entry.getTaskIds() != null && !entry.getTaskIds().isEmpty()) {
+            return entry.getTaskIds();
+        }
+        return entry.getTaskId() != null ? List.of(entry.getTaskId()) : List.of();
+    }
+
+    // A digest can span several assigners; name them all, within the column length
+    private static String assignedBy(EmailOutbox entry, List<EmailOutbox> merged) {
+        Set<String> names = new LinkedHashSet<>();
+        names.add(entry.getAssignedBy());
+        merged.forEach(other -> names.add(other.getAssignedBy()));
+        names.remove(null);
+        String joined = String.join(", ", names);
+        return joined.length() > 255 ? joined.substring(0, 252) + "..." : joined;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        digestTimer.shutdownNow();
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
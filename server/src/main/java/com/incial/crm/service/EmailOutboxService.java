@@ -0,0 +1,86 @@
+package com.incial.crm.service;
+
+import com.incial.crm.entity.EmailOutbox;
+import com.incial.crm.entity.Task;
+import com.incial.crm.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Records a task assignment email in the caller's transaction. Delivery is handed to the
+     * dispatcher only after commit, so no SMTP work happens while a DB connection is held and
+     * nothing is sent for a rolled-back change. The entry waits out the recipient's digest
+     * window so assignments arriving close together go out as one email.
+     */
+    public void enqueueTaskAssignment(String recipient, Task task, String assignedByName) {
+        if (recipient == null || !recipient.contains("@")) {
+            log.debug("Skipping task assignment email for non-address assignee: {}", recipient);
+            return;
+        }
+        EmailOutbox entry = emailOutboxRepository.save(EmailOutbox.builder()
+                .type(EmailOutbox.TYPE_TASK_ASSIGNMENT)
+                .recipient(recipient)
+                .taskId(task.getId())
+                .assignedBy(assignedByName)
+                .nextAttemptAt(emailOutboxDispatcher.digestDueAt(LocalDateTime.now()))
+                .build());
+        meterRegistry.counter("email.enqueued", "type", "task_assignment").increment();
+        log.debug("Queued task assignment email {} to: {} for task: {}", entry.getId(), recipient, task.getId());
+        dispatchAfterCommit(entry.getId(), recipient);
+    }
+
+    /**
+     * Records one email telling {@code recipient} about every task in {@code tasks}. Bulk task
+     * operations use this so a recipient gets a single message instead of one per task.
+     */
+    public void enqueueTaskAssignments(String recipient, List<Task> tasks, String assignedByName) {
+        if (tasks.size() == 1) {
+            enqueueTaskAssignment(recipient, tasks.get(0), assignedByName);
+            return;
+        }
+        if (tasks.isEmpty() || recipient == null || !recipient.contains("@")) {
+            log.debug("Skipping task assignment email for non-address assignee: {}", recipient);
+            return;
+        }
+        EmailOutbox entry = emailOutboxRepository.save(EmailOutbox.builder()
+                .type(EmailOutbox.TYPE_TASK_ASSIGNMENT_BATCH)
+                .recipient(recipient)
+                .taskIds(tasks.stream().map(Task::getId).collect(Collectors.toList()))
+                .assignedBy(assignedByName)
+                .nextAttemptAt(emailOutboxDispatcher.digestDueAt(LocalDateTime.now()))
+                .build());
+        meterRegistry.counter("email.enqueued", "type", "task_assignment_batch").increment();
+        log.debug("Queued task assignment email {} to: {} for {} tasks", entry.getId(), recipient, tasks.size());
+        dispatchAfterCommit(entry.getId(), recipient);
+    }
+
+    private void dispatchAfterCommit(Long outboxId, String recipient) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            emailOutboxDispatcher.submitAfterDigestWindow(outboxId, recipient);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                emailOutboxDispatcher.submitAfterDigestWindow(outboxId, recipient);
+            }
+        });
+    }
+}
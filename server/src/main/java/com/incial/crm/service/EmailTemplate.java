@@ -0,0 +1,109 @@
+package com.incial.crm.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One email template parsed into literal and placeholder segments. Placeholders are written
+ * {@code {{name}}} and resolved to argument positions when the template is compiled, so an
+ * unknown name fails at startup and rendering is a straight append loop with no lookups.
+ * Values are HTML-escaped in HTML templates; {@link EmailTemplates.Fragment} values write
+ * their own, already-escaped output.
+ */
+final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String[] literals;
+    private final int[] slots;
+    private final EmailTemplates.Format format;
+    private final int estimatedLength;
+
+    private EmailTemplate(String[] literals, int[] slots, EmailTemplates.Format format) {
+        this.literals = literals;
+        this.slots = slots;
+        this.format = format;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.estimatedLength = length + slots.length * 32;
+    }
+
+    /**
+     * Compiles {@code source}; {@code variables} lists the placeholder names in argument order.
+     * {@code origin} only names the template in error messages.
+     */
+    static EmailTemplate compile(String source, List<String> variables, EmailTemplates.Format format, String origin) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalStateException("Unclosed placeholder in " + origin + " at offset " + open);
+            }
+            String name = source.substring(open + OPEN.length(), close).trim();
+            int slot = variables.indexOf(name);
+            if (slot < 0) {
+                throw new IllegalStateException("Unknown placeholder {{" + name + "}} in " + origin
+                        + "; expected one of " + variables);
+            }
+            literals.add(source.substring(position, open));
+            slots.add(slot);
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+        return new EmailTemplate(literals.toArray(String[]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray(),
+                format);
+    }
+
+    int estimatedLength() {
+        return estimatedLength;
+    }
+
+    void renderTo(StringBuilder out, Locale locale, Object[] values) {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            Object value = values[slots[i]];
+            if (value instanceof EmailTemplates.Fragment fragment) {
+                fragment.writeTo(out, format, locale);
+            } else if (value != null) {
+                String text = value.toString();
+                if (format == EmailTemplates.Format.HTML) {
+                    appendEscaped(out, text);
+                } else {
+                    out.append(text);
+                }
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+
+    // Same characters as HtmlUtils.htmlEscape, written straight into the builder
+    static void appendEscaped(StringBuilder out, String text) {
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String entity = switch (text.charAt(i)) {
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '&' -> "&amp;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null) {
+                out.append(text, start, i).append(entity);
+                start = i + 1;
+            }
+        }
+        out.append(text, start, text.length());
+    }
+}
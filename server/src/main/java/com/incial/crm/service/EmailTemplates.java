@@ -0,0 +1,165 @@
+package com.incial.crm.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Email bodies from {@code classpath:email/templates/}, compiled once at startup.
+ * <p>
+ * Each {@link Name} needs a default {@code <file>.html} and {@code <file>.txt}, sent together as
+ * multipart/alternative. Locale variants follow the ResourceBundle naming, e.g.
+ * {@code otp_hi.txt} or {@code otp_en_IN.html}, and fall back language first, then to the default.
+ * Rendering reuses a per-thread StringBuilder, so a send allocates little beyond the result.
+ */
+@Component
+@Slf4j
+public class EmailTemplates {
+
+    static final String LOCATION = "classpath*:email/templates/";
+    // Larger buffers (a very long batch email) are dropped instead of being pinned to the thread
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    public enum Format {
+        HTML("html"),
+        TEXT("txt");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    public enum Name {
+        OTP("otp", "otp"),
+        TASK_ASSIGNMENT("task-assignment", "assignedBy", "title", "priority", "priorityColor",
+                "priorityBackground", "taskType", "description", "dueDate", "status", "assignee"),
+        TASK_ASSIGNMENT_BATCH("task-assignment-batch", "count", "assignedBy", "tasks", "assignee"),
+        TASK_ASSIGNMENT_BATCH_ROW("task-assignment-batch-row", "title", "priority", "priorityColor",
+                "dueDate", "status");
+
+        private final String file;
+        private final List<String> variables;
+
+        Name(String file, String... variables) {
+            this.file = file;
+            this.variables = List.of(variables);
+        }
+    }
+
+    /** A value that renders itself, e.g. a list of rows from another template. Not escaped. */
+    @FunctionalInterface
+    public interface Fragment {
+        void writeTo(StringBuilder out, Format format, Locale locale);
+    }
+
+    public record Rendered(String html, String text) {
+    }
+
+    // Locale tag ("" for the default) to template, per name and format
+    private final Map<Name, Map<Format, Map<String, EmailTemplate>>> templates = new EnumMap<>(Name.class);
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    public EmailTemplates() {
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(EmailTemplates.class.getClassLoader());
+        int count = 0;
+        for (Name name : Name.values()) {
+            Map<Format, Map<String, EmailTemplate>> formats = new EnumMap<>(Format.class);
+            for (Format format : Format.values()) {
+                Map<String, EmailTemplate> variants = load(resolver, name, format);
+                count += variants.size();
+                formats.put(format, variants);
+            }
+            templates.put(name, formats);
+        }
+        log.info("Compiled {} email templates", count);
+    }
+
+    /** Renders both parts with the same values. */
+    public Rendered render(Name name, Locale locale, Object... values) {
+        return new Rendered(render(name, Format.HTML, locale, values), render(name, Format.TEXT, locale, values));
+    }
+
+    public String render(Name name, Format format, Locale locale, Object... values) {
+        StringBuilder out = buffers.get();
+        if (out.length() > 0) {
+            throw new IllegalStateException("Nested render of " + name + "; fragments must use renderTo");
+        }
+        try {
+            renderTo(out, name, format, locale, values);
+            return out.toString();
+        } finally {
+            if (out.capacity() > MAX_RETAINED_CAPACITY) {
+                buffers.remove();
+            } else {
+                out.setLength(0);
+            }
+        }
+    }
+
+    /** Appends to {@code out}; the entry point for fragments. */
+    public void renderTo(StringBuilder out, Name name, Format format, Locale locale, Object... values) {
+        if (values.length != name.variables.size()) {
+            throw new IllegalArgumentException("Template " + name + " takes " + name.variables
+                    + " but got " + values.length + " values");
+        }
+        EmailTemplate template = resolve(name, format, locale);
+        out.ensureCapacity(out.length() + template.estimatedLength());
+        template.renderTo(out, locale, values);
+    }
+
+    private EmailTemplate resolve(Name name, Format format, Locale locale) {
+        Map<String, EmailTemplate> variants = templates.get(name).get(format);
+        if (locale != null && variants.size() > 1) {
+            EmailTemplate template = variants.get(locale.toString());
+            if (template == null) {
+                template = variants.get(locale.getLanguage());
+            }
+            if (template != null) {
+                return template;
+            }
+        }
+        return variants.get("");
+    }
+
+    private static Map<String, EmailTemplate> load(ResourcePatternResolver resolver, Name name, Format format) {
+        String suffix = "." + format.extension;
+        Map<String, EmailTemplate> variants = new HashMap<>();
+        try {
+            for (Resource resource : resolver.getResources(LOCATION + name.file + suffix)) {
+                variants.put("", compile(resource, name, format));
+            }
+            for (Resource resource : resolver.getResources(LOCATION + name.file + "_*" + suffix)) {
+                String filename = resource.getFilename();
+                String tag = filename.substring(name.file.length() + 1, filename.length() - suffix.length());
+                variants.put(tag, compile(resource, name, format));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read email templates for " + name, e);
+        }
+        if (!variants.containsKey("")) {
+            throw new IllegalStateException("Missing email template " + LOCATION + name.file + suffix);
+        }
+        return variants;
+    }
+
+    private static EmailTemplate compile(Resource resource, Name name, Format format) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            String source = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+            return EmailTemplate.compile(source, name.variables, format, resource.getFilename());
+        }
+    }
+}
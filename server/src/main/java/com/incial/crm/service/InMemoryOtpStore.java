@@ -0,0 +1,151 @@
+package com.incial.crm.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * OTPs in memory, for single-node deployments: no database round trip on generate or verify.
+ * Codes are lost on restart and are not shared between instances, so do not use this behind a
+ * load balancer.
+ * <p>
+ * Emails hash to one of {@value #SHARDS} shards, each with its own lock. Each shard keeps a
+ * timing wheel of one-second slots, so {@link #purgeExpired} only visits the slots that have come
+ * due since the last sweep instead of scanning every entry. A code that expires more than one
+ * turn ahead stays in its slot until the turn that reaches it. Verification checks the
+ * expiry itself and does not depend on the sweep.
+ */
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory")
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final int SHARDS = 16;
+    // One second per slot: a turn (~17 minutes) covers the 10-minute OTP lifetime
+    private static final int WHEEL_SLOTS = 1024;
+
+    private final Shard[] shards = new Shard[SHARDS];
+    private final int maxAttempts;
+
+    public InMemoryOtpStore(@Value("${otp.max-attempts:5}") int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    @Override
+    public void put(String email, String code, LocalDateTime expiresAt) {
+        shard(email).put(email, new Entry(code, expiresAt));
+    }
+
+    @Override
+    public Result verify(String email, String code, LocalDateTime now) {
+        return shard(email).verify(email, code, now, maxAttempts);
+    }
+
+    @Override
+    public int purgeExpired(LocalDateTime now) {
+        int purged = 0;
+        for (Shard shard : shards) {
+            purged += shard.advanceTo(now);
+        }
+        return purged;
+    }
+
+    private Shard shard(String email) {
+        return shards[Math.floorMod(email.hashCode(), SHARDS)];
+    }
+
+    private static long second(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static int slot(long second) {
+        return (int) Math.floorMod(second, (long) WHEEL_SLOTS);
+    }
+
+    private static final class Entry {
+        private final String code;
+        private final LocalDateTime expiresAt;
+        private int attempts;
+
+        private Entry(String code, LocalDateTime expiresAt) {
+            this.code = code;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Shard {
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final List<Set<String>> wheel = new ArrayList<>(WHEEL_SLOTS);
+        private long sweptThrough = Long.MIN_VALUE;
+
+        private Shard() {
+            for (int i = 0; i < WHEEL_SLOTS; i++) {
+                wheel.add(new HashSet<>());
+            }
+        }
+
+        synchronized void put(String email, Entry entry) {
+            remove(email);
+            entries.put(email, entry);
+            wheel.get(slot(second(entry.expiresAt))).add(email);
+        }
+
+        synchronized Result verify(String email, String code, LocalDateTime now, int maxAttempts) {
+            Entry entry = entries.get(email);
+            if (entry == null || !entry.expiresAt.isAfter(now)) {
+                remove(email);
+                return Result.EXPIRED;
+            }
+            if (entry.attempts >= maxAttempts) {
+                return Result.LOCKED;
+            }
+            entry.attempts++;
+            if (!OtpStore.codesMatch(entry.code, code)) {
+                return Result.INVALID;
+            }
+            remove(email);
+            return Result.VALID;
+        }
+
+        synchronized int advanceTo(LocalDateTime now) {
+            long current = second(now);
+            // First sweep, or idle for a whole turn: every slot may hold something due
+            long from = sweptThrough == Long.MIN_VALUE || current - sweptThrough >= WHEEL_SLOTS
+                    ? current - WHEEL_SLOTS + 1
+                    : sweptThrough + 1;
+            int purged = 0;
+            for (long second = from; second <= current; second++) {
+                Iterator<String> emails = wheel.get(slot(second)).iterator();
+                while (emails.hasNext()) {
+                    String email = emails.next();
+                    if (!entries.get(email).expiresAt.isAfter(now)) {
+                        entries.remove(email);
+                        emails.remove();
+                        purged++;
+                    }
+                }
+            }
+            sweptThrough = Math.max(sweptThrough, current);
+            return purged;
+        }
+
+        private void remove(String email) {
+            Entry previous = entries.remove(email);
+            if (previous != null) {
+                wheel.get(slot(second(previous.expiresAt))).remove(email);
+            }
+        }
+    }
+}
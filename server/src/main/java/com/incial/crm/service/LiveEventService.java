@@ -0,0 +1,321 @@
+package com.incial.crm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.incial.crm.dto.ChangeEventDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Server-Sent Events fan-out for live board updates.
+ * <p>
+ * Subscribers are async servlet requests, so an idle connection holds no thread. Each event is
+ * serialized once and offered to a small per-connection queue; a bounded worker pool drains the
+ * queues. A connection that falls a full queue behind loses its backlog and gets a single
+ * {@code resync} event instead, so one slow client never holds memory for the rest. A write that
+ * blocks longer than {@code events.send-timeout-ms} disconnects the client and the pool gets a
+ * replacement worker until that write gives up, so a stalled socket cannot pin the shared workers.
+ * Events only reach subscribers of this instance; clients catch up through /changes on reconnect.
+ */
+@Service
+@Slf4j
+public class LiveEventService {
+
+    public static final String OP_CREATED = "CREATED";
+    public static final String OP_UPDATED = "UPDATED";
+    public static final String OP_DELETED = "DELETED";
+
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final long sendTimeoutNanos;
+    private final int fanoutWorkers;
+    private final Supplier<SseEmitter> emitters;
+    private final ThreadPoolExecutor fanout;
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    // Slots are reserved here before a subscriber is registered, so concurrent subscribes cannot overshoot the cap
+    private final AtomicInteger connected = new AtomicInteger();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    // Workers stuck in a stalled write, each covered by an extra pool thread
+    private int replacedWorkers;
+
+    public LiveEventService(ObjectMapper objectMapper,
+                            @Value("${events.max-subscribers:5000}") int maxSubscribers,
+                            @Value("${events.queue-capacity:64}") int queueCapacity,
+                            @Value("${events.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                            @Value("${events.fanout-workers:4}") int fanoutWorkers,
+                            @Value("${events.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this(objectMapper, maxSubscribers, queueCapacity, fanoutWorkers, sendTimeoutMs,
+                () -> new SseEmitter(emitterTimeoutMs));
+    }
+
+    LiveEventService(ObjectMapper objectMapper, int maxSubscribers, int queueCapacity, int fanoutWorkers,
+                     long sendTimeoutMs, Supplier<SseEmitter> emitters) {
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = queueCapacity;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.fanoutWorkers = fanoutWorkers;
+        this.emitters = emitters;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fanout = new ThreadPoolExecutor(fanoutWorkers, fanoutWorkers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(maxSubscribers, 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "live-events-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.fanout.allowCoreThreadTimeOut(true);
+    }
+
+    /** Opens a stream for {@code userEmail}, or empty when this instance is at its subscriber limit. */
+    public Optional<SseEmitter> subscribe(String userEmail) {
+        if (!reserveSlot()) {
+            log.warn("Rejecting live event subscription for {}: {} subscribers connected", userEmail, maxSubscribers);
+            return Optional.empty();
+        }
+        long id = subscriberIds.incrementAndGet();
+        SseEmitter emitter = emitters.get();
+        Subscriber subscriber = new Subscriber(id, emitter, new ArrayBlockingQueue<>(queueCapacity));
+        subscribers.put(id, subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        // First frame confirms the stream and pushes the response headers through proxies
+        enqueue(subscriber, SseEmitter.event().name("ready").data(Map.of("sequence", sequence.get())).build());
+        log.debug("Live event subscriber {} connected for {} ({} total)", id, userEmail, subscribers.size());
+        return Optional.of(emitter);
+    }
+
+    private boolean reserveSlot() {
+        int current;
+        do {
+            current = connected.get();
+            if (current >= maxSubscribers) {
+                return false;
+            }
+        } while (!connected.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber.id, subscriber)) {
+            return false;
+        }
+        connected.decrementAndGet();
+        subscriber.queue.clear();
+        return true;
+    }
+
+    /**
+     * Publishes a change once the caller's transaction commits; nothing is sent for a rollback.
+     * Without an active transaction the event goes out immediately. {@code version} is read after
+     * commit because @PreUpdate only stamps lastUpdatedAt at flush; pass null for deletes.
+     */
+    public void publishAfterCommit(String entity, Long id, String op, Supplier<LocalDateTime> version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            broadcast(toEvent(entity, id, op, version));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                broadcast(toEvent(entity, id, op, version));
+            }
+        });
+    }
+
+    private static ChangeEventDto toEvent(String entity, Long id, String op, Supplier<LocalDateTime> version) {
+        LocalDateTime updatedAt = version != null ? version.get() : null;
+        return ChangeEventDto.builder()
+                .entity(entity)
+                .id(id)
+                .op(op)
+                .version(updatedAt != null
+                        ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                        : System.currentTimeMillis())
+                .build();
+    }
+
+    void broadcast(ChangeEventDto event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize live event {}", event, e);
+            return;
+        }
+        // Rendered once and shared: the frame is immutable once built
+        Set<DataWithMediaType> frame = SseEmitter.event()
+                .id(Long.toString(sequence.incrementAndGet()))
+                .name("change")
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+        subscribers.values().forEach(subscriber -> enqueue(subscriber, frame));
+    }
+
+    @Scheduled(fixedRateString = "${events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> frame = SseEmitter.event().comment("hb").build();
+        subscribers.values().forEach(subscriber -> enqueue(subscriber, frame));
+    }
+
+    /**
+     * Drops subscribers whose current write has been blocked past the send timeout. The emitter
+     * is locked by that write, so its worker closes it once the write returns or the container
+     * times it out; the pool grows by one thread meanwhile, up to {@code fanout-workers} extra.
+     */
+    @Scheduled(fixedDelayString = "${events.stall-check-ms:1000}")
+    public void evictStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers.values()) {
+            synchronized (subscriber) {
+                long started = subscriber.sendStartedNanos;
+                if (started == 0 || now - started < sendTimeoutNanos || subscriber.evicted) {
+                    continue;
+                }
+                subscriber.evicted = true;
+                subscriber.replaced = replaceWorker();
+            }
+            if (remove(subscriber)) {
+                log.warn("Live event subscriber {} stalled for over {} ms; disconnecting",
+                        subscriber.id, TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return connected.get();
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        if (!subscriber.queue.offer(frame)) {
+            // Backpressure: drop this client's backlog and tell it to refetch rather than buffer without bound
+            subscriber.queue.clear();
+            subscriber.queue.offer(SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON).build());
+            log.debug("Live event subscriber {} fell behind; sent resync", subscriber.id);
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            fanout.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            // Frames stay queued; the next event or heartbeat retries
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> frame;
+            while (!subscriber.evicted && (frame = subscriber.queue.poll()) != null) {
+                subscriber.sendStartedNanos = System.nanoTime();
+                subscriber.emitter.send(frame);
+                subscriber.sendStartedNanos = 0;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away or the emitter already completed
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            synchronized (subscriber) {
+                subscriber.sendStartedNanos = 0;
+                if (subscriber.replaced) {
+                    subscriber.replaced = false;
+                    releaseWorker();
+                }
+            }
+            subscriber.draining.set(false);
+        }
+        if (subscriber.evicted) {
+            subscriber.emitter.completeWithError(new IOException("Live event send timed out"));
+            return;
+        }
+        // A frame may have arrived between the last poll and releasing the flag
+        if (!subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private synchronized boolean replaceWorker() {
+        if (replacedWorkers >= fanoutWorkers) {
+            return false;
+        }
+        replacedWorkers++;
+        // Maximum first: the core size may never exceed it
+        fanout.setMaximumPoolSize(fanoutWorkers + replacedWorkers);
+        fanout.setCorePoolSize(fanoutWorkers + replacedWorkers);
+        return true;
+    }
+
+    private synchronized void releaseWorker() {
+        replacedWorkers--;
+        fanout.setCorePoolSize(fanoutWorkers + replacedWorkers);
+        fanout.setMaximumPoolSize(fanoutWorkers + replacedWorkers);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        connected.set(0);
+        fanout.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        private final long id;
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Non-zero while a send is in progress; evicted and replaced are set under the subscriber's monitor
+        private volatile long sendStartedNanos;
+        private volatile boolean evicted;
+        private boolean replaced;
+
+        private Subscriber(long id, SseEmitter emitter, Queue<Set<DataWithMediaType>> queue) {
+            this.id = id;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.incial.crm.service;
 
+import com.incial.crm.dto.ChangeSetDto;
 import com.incial.crm.dto.MeetingDto;
+import com.incial.crm.dto.Versioned;
 import com.incial.crm.entity.Meeting;
+import com.incial.crm.entity.Tombstone;
 import com.incial.crm.repository.MeetingRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -15,6 +19,8 @@ import java.util.stream.Collectors;
 public class MeetingService {
 
     private final MeetingRepository meetingRepository;
+    private final ChangeFeedService changeFeedService;
+    private final LiveEventService liveEventService;
 
     @Transactional(readOnly = true)
     public List<MeetingDto> getAllMeetings() {
@@ -23,6 +29,19 @@ public class MeetingService {
                 .collect(Collectors.toList());
     }
 
+    /** The meetings with their ETag from one read-only transaction; see {@link TaskService#getAllTasks(Predicate)}. */
+    @Transactional(readOnly = true)
+    public Versioned<List<MeetingDto>> getAllMeetings(Predicate<String> notModified) {
+        String etag = getMeetingsVersion();
+        return new Versioned<>(etag, notModified.test(etag) ? null : getAllMeetings());
+    }
+
+    /** ETag for {@link #getAllMeetings()}; take it before loading the meetings. */
+    @Transactional(readOnly = true)
+    public String getMeetingsVersion() {
+        return "\"meetings-" + meetingRepository.findCollectionVersion().fingerprint() + "\"";
+    }
+
     @Transactional(readOnly = true)
     public List<MeetingDto> getCurrentUserMeetings(String userEmail) {
         // Extract username from email for backward compatibility
@@ -34,9 +53,17 @@ public class MeetingService {
                 .collect(Collectors.toList());
     }
 
+    /** Meetings created, updated or deleted since the cursor; see ChangeFeedService. */
+    @Transactional(readOnly = true)
+    public ChangeSetDto<MeetingDto> getChangesSince(String since, Integer limit) {
+        return changeFeedService.changesSince(Tombstone.TYPE_MEETING, since, limit,
+                meetingRepository::findChangedSince, Meeting::getLastUpdatedAt, Meeting::getId, this::convertToDto);
+    }
+
     public MeetingDto createMeeting(MeetingDto dto) {
         Meeting meeting = convertToEntity(dto);
         Meeting saved = meetingRepository.save(meeting);
+        liveEventService.publishAfterCommit(Tombstone.TYPE_MEETING, saved.getId(), LiveEventService.OP_CREATED, saved::getLastUpdatedAt);
         return convertToDto(saved);
     }
 
@@ -46,14 +73,18 @@ public class MeetingService {
         
         updateEntityFromDto(meeting, dto);
         Meeting updated = meetingRepository.save(meeting);
+        liveEventService.publishAfterCommit(Tombstone.TYPE_MEETING, updated.getId(), LiveEventService.OP_UPDATED, updated::getLastUpdatedAt);
         return convertToDto(updated);
     }
 
+    @Transactional
     public void deleteMeeting(Long id) {
         if (!meetingRepository.existsById(id)) {
             throw new RuntimeException("Meeting not found with id: " + id);
         }
         meetingRepository.deleteById(id);
+        changeFeedService.recordDeletion(Tombstone.TYPE_MEETING, id);
+        liveEventService.publishAfterCommit(Tombstone.TYPE_MEETING, id, LiveEventService.OP_DELETED, null);
     }
 
     private MeetingDto convertToDto(Meeting entity) {
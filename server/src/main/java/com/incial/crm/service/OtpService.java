@@ -1,79 +1,60 @@
 package com.incial.crm.service;
 
-import com.incial.crm.entity.Otp;
-import com.incial.crm.repository.OtpRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.Optional;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class OtpService {
 
-    private final OtpRepository otpRepository;
+    private final OtpStore otpStore;
     private final EmailService emailService;
+    private final MeterRegistry meterRegistry;
 
     private static final SecureRandom random = new SecureRandom();
     private static final int OTP_EXPIRY_MINUTES = 10;
 
     /**
-     * Generates a new OTP.
-     * Deletes old OTPs and inserts new one and the same transaction.
+     * Generates a new OTP, replacing any earlier one for the email.
      */
-    @Transactional
     public void generateAndSendOtp(String email) {
 
-        // delete must be inside transaction
-        otpRepository.deleteByEmail(email);
-
         String otpCode = String.format("%06d", random.nextInt(1_000_000));
 
-        Otp otp = Otp.builder()
-                .email(email)
-                .otpCode(otpCode)
-                .expiresAt(LocalDateTime.now().plusMinutes(OTP_EXPIRY_MINUTES))
-                .verified(false)
-                .build();
-
-        otpRepository.save(otp);
+        otpStore.put(email, otpCode, LocalDateTime.now().plusMinutes(OTP_EXPIRY_MINUTES));
+        meterRegistry.counter("otp.issued").increment();
 
-        // external IO AFTER DB consistency is guaranteed
+        // external IO AFTER the code is stored
         emailService.sendOtpEmail(email, otpCode);
 
     }
 
     /**
-     * Verifies OTP atomically.
+     * Verifies and consumes the OTP; each call spends one of the otp.max-attempts.
      */
-    @Transactional
     public boolean verifyOtp(String email, String otpCode) {
 
-        Optional<Otp> otpOptional =
-                otpRepository.findByEmailAndOtpCodeAndVerifiedFalseAndExpiresAtAfter(
-                        email, otpCode, LocalDateTime.now()
-                );
-
-        if (otpOptional.isEmpty()) {
-            return false;
-        }
-
-        Otp otp = otpOptional.get();
-        otp.setVerified(true);
+        OtpStore.Result result = otpStore.verify(email, otpCode, LocalDateTime.now());
+        meterRegistry.counter("otp.verifications", "result", result.tag()).increment();
 
-        return true;
+        return result == OtpStore.Result.VALID;
     }
 
     /**
-     * Scheduled / manual cleanup
+     * Removes expired and used OTPs
      */
-    @Transactional
-    @Scheduled(cron = "0 0 0 * * Sat") // Run every hour
+    @Scheduled(fixedDelayString = "${otp.purge-interval-ms:60000}")
     public void deleteExpiredOtp() {
-        otpRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+        int purged = otpStore.purgeExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired OTPs", purged);
+        }
     }
 }
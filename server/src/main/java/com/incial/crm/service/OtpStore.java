@@ -0,0 +1,37 @@
+package com.incial.crm.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Where {@link OtpService} keeps one-time passwords. {@code otp.store=database} (default) uses
+ * the {@code otps} table; {@code otp.store=memory} keeps them in this JVM only, for single-node
+ * deployments. Either way each email has at most one live code, every verification spends an
+ * attempt before the code is compared, and a correct code is consumed.
+ */
+public interface OtpStore {
+
+    enum Result {
+        VALID, INVALID, EXPIRED, LOCKED;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** Stores {@code code} for {@code email}, replacing any earlier one. */
+    void put(String email, String code, LocalDateTime expiresAt);
+
+    Result verify(String email, String code, LocalDateTime now);
+
+    /** Drops expired and consumed codes; returns how many were removed. */
+    int purgeExpired(LocalDateTime now);
+
+    // Timing does not depend on where the codes first differ
+    static boolean codesMatch(String expected, String actual) {
+        return actual != null && MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+    }
+}
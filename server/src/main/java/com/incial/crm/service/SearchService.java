@@ -0,0 +1,169 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.SearchHitDto;
+import com.incial.crm.dto.SearchResultDto;
+import com.incial.crm.repository.SearchRepository;
+import com.incial.crm.repository.SearchRepository.SearchRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 50;
+    // Deepest first hit a page may start at; the fallback ranks offset + size rows per type in memory
+    static final int MAX_OFFSET = 1000;
+    static final int MIN_QUERY_LENGTH = 2;
+    static final int MAX_QUERY_LENGTH = 200;
+    private static final int SNIPPET_CONTEXT = 60;
+
+    private static final Set<String> ALL_TYPES = Set.of(
+            SearchRepository.TYPE_CRM, SearchRepository.TYPE_TASK, SearchRepository.TYPE_MEETING);
+
+    private final SearchRepository searchRepository;
+
+    @Transactional(readOnly = true)
+    public SearchResultDto search(String query, List<String> types, Integer page, Integer size) {
+        String term = query == null ? "" : query.trim();
+        if (term.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        if (term.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        int pageNumber = page == null ? 0 : page;
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        if ((long) pageNumber * pageSize > MAX_OFFSET) {
+            throw new IllegalArgumentException("Search results are limited to the first " + MAX_OFFSET + " hits; refine the query");
+        }
+        Set<String> selectedTypes = parseTypes(types);
+
+        boolean fullText = searchRepository.isFullTextAvailable();
+        List<SearchHitDto> hits = fullText
+                ? fullTextHits(term, selectedTypes, pageNumber, pageSize)
+                : fallbackHits(term, selectedTypes, pageNumber, pageSize);
+
+        boolean hasMore = hits.size() > pageSize;
+        return SearchResultDto.builder()
+                .query(term)
+                .page(pageNumber)
+                .size(pageSize)
+                .hasMore(hasMore)
+                .fullText(fullText)
+                .hits(hasMore ? hits.subList(0, pageSize) : hits)
+                .build();
+    }
+
+    // Both paths return up to pageSize + 1 hits so hasMore needs no count query
+
+    private List<SearchHitDto> fullTextHits(String term, Set<String> types, int page, int size) {
+        List<SearchRow> rows = searchRepository.fullTextSearch(term, types, size + 1, page * size);
+        List<SearchHitDto> hits = new ArrayList<>(rows.size());
+        for (SearchRow row : rows) {
+            hits.add(toHit(row, markHeadline(row.text()), row.score()));
+        }
+        return hits;
+    }
+
+    private List<SearchHitDto> fallbackHits(String term, Set<String> types, int page, int size) {
+        // Each type can contribute the whole window, so fetch that much per type and rank in memory
+        int window = (page + 1) * size + 1;
+        String needle = term.toLowerCase(Locale.ROOT);
+
+        List<SearchHitDto> ranked = new ArrayList<>();
+        for (String type : types) {
+            for (SearchRow row : searchRepository.likeSearch(type, term, window)) {
+                ranked.add(toHit(row, snippet(row.text(), needle), fallbackScore(row.title(), needle)));
+            }
+        }
+        ranked.sort(Comparator.comparingDouble(SearchHitDto::getScore).reversed()
+                .thenComparing(SearchHitDto::getType)
+                .thenComparing(SearchHitDto::getId, Comparator.reverseOrder()));
+
+        int from = Math.min(page * size, ranked.size());
+        int to = Math.min(from + size + 1, ranked.size());
+        return new ArrayList<>(ranked.subList(from, to));
+    }
+
+    private Set<String> parseTypes(List<String> types) {
+        if (types == null || types.isEmpty()) {
+            return ALL_TYPES;
+        }
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String value : types) {
+            for (String part : value.split(",")) {
+                String type = part.trim().toUpperCase(Locale.ROOT);
+                if (type.isEmpty()) {
+                    continue;
+                }
+                if (!ALL_TYPES.contains(type)) {
+                    throw new IllegalArgumentException("Unknown search type: " + part.trim());
+                }
+                parsed.add(type);
+            }
+        }
+        return parsed.isEmpty() ? ALL_TYPES : parsed;
+    }
+
+    private SearchHitDto toHit(SearchRow row, String snippet, double score) {
+        return SearchHitDto.builder()
+                .type(row.type())
+                .id(row.id())
+                .title(row.title())
+                .snippet(snippet)
+                .score(score)
+                .build();
+    }
+
+    private static double fallbackScore(String title, String needle) {
+        String lowerTitle = title == null ? "" : title.toLowerCase(Locale.ROOT);
+        if (lowerTitle.equals(needle)) return 3;
+        if (lowerTitle.startsWith(needle)) return 2;
+        if (lowerTitle.contains(needle)) return 1.5;
+        return 1;
+    }
+
+    // ts_headline marks matches with [[ ]]; escape the text first so only our <mark> tags survive
+    static String markHeadline(String headline) {
+        if (headline == null) {
+            return "";
+        }
+        return HtmlUtils.htmlEscape(headline)
+                .replace("[[", "<mark>")
+                .replace("]]", "</mark>");
+    }
+
+    static String snippet(String text, String needle) {
+        if (text == null || text.isBlank()) {
+            return "";
+        }
+        int match = text.toLowerCase(Locale.ROOT).indexOf(needle);
+        if (match < 0 || match >= text.length()) {
+            int end = Math.min(text.length(), SNIPPET_CONTEXT * 2);
+            return HtmlUtils.htmlEscape(text.substring(0, end)) + (end < text.length() ? " …" : "");
+        }
+        // Lower-casing can change length for a few characters, so clamp against the original text
+        int matchEnd = Math.min(text.length(), match + needle.length());
+        int start = Math.max(0, match - SNIPPET_CONTEXT);
+        int end = Math.min(text.length(), matchEnd + SNIPPET_CONTEXT);
+        return (start > 0 ? "… " : "")
+                + HtmlUtils.htmlEscape(text.substring(start, match))
+                + "<mark>" + HtmlUtils.htmlEscape(text.substring(match, matchEnd)) + "</mark>"
+                + HtmlUtils.htmlEscape(text.substring(matchEnd, end))
+                + (end < text.length() ? " …" : "");
+    }
+}
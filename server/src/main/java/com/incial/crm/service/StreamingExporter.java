@@ -0,0 +1,153 @@
+package com.incial.crm.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes a repository {@link Stream} row by row as NDJSON or CSV.
+ * <p>
+ * Must run inside the read-only transaction that opened the stream. Every {@link #CHUNK_SIZE}
+ * rows the output is flushed and the persistence context cleared, so heap use stays flat no
+ * matter how many rows are exported. Entities with collections to initialise go through
+ * {@link #writeInChunks}: a scrolled entity stream hands rows over one at a time, so lazy
+ * collections would be loaded row by row.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StreamingExporter {
+
+    /** Matches the JDBC fetch size hinted on the streaming repository queries. */
+    public static final int CHUNK_SIZE = 500;
+
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public record Column<D>(String header, Function<D, Object> value) {}
+
+    public <E, D> long write(Stream<E> rows, Function<E, D> toDto, ExportFormat format,
+                             List<Column<D>> columns, OutputStream out) throws IOException {
+        return writeRows(rows.iterator(), toDto, format, columns, out);
+    }
+
+    /**
+     * Streams ids, loads them {@link #CHUNK_SIZE} at a time through {@code loadChunk} (one
+     * statement that fetches whatever each row needs) and writes the rows in the order loaded.
+     * The persistence context is cleared before each chunk.
+     */
+    public <E, D> long writeInChunks(Stream<Long> ids, Function<List<Long>, List<E>> loadChunk, Function<E, D> toDto,
+                                     ExportFormat format, List<Column<D>> columns, OutputStream out) throws IOException {
+        Iterator<Long> idIterator = ids.iterator();
+        Iterator<E> rows = new Iterator<>() {
+            private Iterator<E> chunk = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!chunk.hasNext() && idIterator.hasNext()) {
+                    List<Long> chunkIds = new ArrayList<>(CHUNK_SIZE);
+                    while (chunkIds.size() < CHUNK_SIZE && idIterator.hasNext()) {
+                        chunkIds.add(idIterator.next());
+                    }
+                    entityManager.clear();
+                    chunk = loadChunk.apply(chunkIds).iterator();
+                }
+                return chunk.hasNext();
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.next();
+            }
+        };
+        return writeRows(rows, toDto, format, columns, out);
+    }
+
+    private <E, D> long writeRows(Iterator<E> iterator, Function<E, D> toDto, ExportFormat format,
+                                  List<Column<D>> columns, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        // The generator must not close the servlet stream after each value
+        ObjectWriter json = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        if (format == ExportFormat.CSV) {
+            writeCsvRow(writer, columns.stream().map(Column::header).collect(Collectors.toList()));
+        }
+
+        long count = 0;
+        while (iterator.hasNext()) {
+            D dto = toDto.apply(iterator.next());
+            if (format == ExportFormat.CSV) {
+                writeCsvRow(writer, columns.stream().map(column -> column.value().apply(dto)).collect(Collectors.toList()));
+            } else {
+                json.writeValue(writer, dto);
+                writer.write('\n');
+            }
+            if (++count % CHUNK_SIZE == 0) {
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+        log.info("Exported {} rows as {}", count, format);
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvCell(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    static String csvCell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text;
+        if (value instanceof Collection<?> collection) {
+            text = collection.stream().map(String::valueOf).collect(Collectors.joining("; "));
+        } else if (value instanceof Map<?, ?> map) {
+            text = map.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining("; "));
+        } else {
+            text = value.toString();
+        }
+        // Neutralise spreadsheet formulas in user-entered text
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0 && !(value instanceof Number)) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
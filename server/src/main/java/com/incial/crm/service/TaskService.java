@@ -1,19 +1,41 @@
 package com.incial.crm.service;
 
+import com.incial.crm.dto.AssigneeStatsDto;
+import com.incial.crm.dto.ChangeSetDto;
+import com.incial.crm.dto.CursorPage;
 import com.incial.crm.dto.TaskDto;
+import com.incial.crm.dto.Versioned;
 import com.incial.crm.entity.Task;
 import com.incial.crm.entity.TaskAssignee;
+import com.incial.crm.entity.TaskStatusBucket;
+import com.incial.crm.entity.Tombstone;
+import com.incial.crm.repository.TaskAssigneeRepository;
 import com.incial.crm.repository.TaskRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,8 +43,31 @@ import java.util.stream.Collectors;
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final TaskAssigneeRepository taskAssigneeRepository;
     private final UserService userService;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final StreamingExporter streamingExporter;
+    private final ChangeFeedService changeFeedService;
+    private final LiveEventService liveEventService;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    static final int MAX_BULK_SIZE = 1000;
+
+    private static final List<StreamingExporter.Column<TaskDto>> EXPORT_COLUMNS = List.of(
+            new StreamingExporter.Column<>("id", TaskDto::getId),
+            new StreamingExporter.Column<>("title", TaskDto::getTitle),
+            new StreamingExporter.Column<>("description", TaskDto::getDescription),
+            new StreamingExporter.Column<>("status", TaskDto::getStatus),
+            new StreamingExporter.Column<>("priority", TaskDto::getPriority),
+            new StreamingExporter.Column<>("assignees", TaskDto::getAssignedToList),
+            new StreamingExporter.Column<>("dueDate", TaskDto::getDueDate),
+            new StreamingExporter.Column<>("companyId", TaskDto::getCompanyId),
+            new StreamingExporter.Column<>("taskType", TaskDto::getTaskType),
+            new StreamingExporter.Column<>("taskLink", TaskDto::getTaskLink),
+            new StreamingExporter.Column<>("createdAt", TaskDto::getCreatedAt),
+            new StreamingExporter.Column<>("lastUpdatedBy", TaskDto::getLastUpdatedBy),
+            new StreamingExporter.Column<>("lastUpdatedAt", TaskDto::getLastUpdatedAt));
 
     @Transactional(readOnly = true)
     public List<TaskDto> getAllTasks() {
@@ -31,6 +76,26 @@ public class TaskService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * The task list with its ETag, read in one read-only transaction so both come from the same
+     * database; the list is not loaded when {@code notModified} accepts the tag.
+     */
+    @Transactional(readOnly = true)
+    public Versioned<List<TaskDto>> getAllTasks(Predicate<String> notModified) {
+        String etag = getTasksVersion();
+        return new Versioned<>(etag, notModified.test(etag) ? null : getAllTasks());
+    }
+
+    /**
+     * ETag for {@link #getAllTasks()} computed from aggregates only. Taken before the list, so a
+     * concurrent write can only make the body newer than its tag.
+     */
+    @Transactional(readOnly = true)
+    public String getTasksVersion() {
+        return "\"tasks-" + taskRepository.findCollectionVersion().fingerprint()
+                + "-" + taskAssigneeRepository.findCollectionVersion().fingerprint() + "\"";
+    }
+
     @Transactional(readOnly = true)
     public List<TaskDto> getActiveTasks() {
         return taskRepository.findAllActiveTasks().stream()
@@ -45,6 +110,80 @@ public class TaskService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Keyset-paginated task listing. Sort is either "updated" (lastUpdatedAt DESC, id DESC)
+     * or "due" (dueDate ASC, id ASC, tasks without a due date excluded). The returned cursor
+     * encodes the sort key of the last row, so pages stay stable while tasks are being edited.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDto> getTaskPage(String status, String priority, Long companyId, String assignee,
+                                           LocalDate dueFrom, LocalDate dueTo, String sort, String cursor,
+                                           Integer size) {
+        TaskStatusBucket statusBucket = normalizeStatusBucket(status);
+        boolean byDueDate = "due".equalsIgnoreCase(sort);
+        if (sort != null && !byDueDate && !"updated".equalsIgnoreCase(sort)) {
+            throw new IllegalArgumentException("Unsupported sort '" + sort + "'. Use 'updated' or 'due'");
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String priorityFilter = priority != null && !priority.isBlank() ? priority.trim() : null;
+        String assigneeFilter = assignee != null && !assignee.isBlank() ? assignee.trim() : null;
+
+        // Fetch one extra row to know whether another page exists without a count query
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+        String[] cursorParts = decodeCursor(cursor, byDueDate ? "D" : "U");
+
+        List<Task> rows;
+        if (byDueDate) {
+            rows = taskRepository.findPageByDueDate(statusBucket, priorityFilter, companyId, assigneeFilter,
+                    dueFrom, dueTo,
+                    cursorParts != null ? LocalDate.parse(cursorParts[1]) : null,
+                    cursorParts != null ? Long.valueOf(cursorParts[2]) : null,
+                    limit);
+        } else {
+            rows = taskRepository.findPageByLastUpdated(statusBucket, priorityFilter, companyId, assigneeFilter,
+                    dueFrom, dueTo,
+                    cursorParts != null ? LocalDateTime.parse(cursorParts[1]) : null,
+                    cursorParts != null ? Long.valueOf(cursorParts[2]) : null,
+                    limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Task> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Task last = page.get(page.size() - 1);
+            nextCursor = byDueDate
+                    ? encodeCursor("D", last.getDueDate().toString(), last.getId())
+                    : encodeCursor("U", last.getLastUpdatedAt().toString(), last.getId());
+        }
+
+        return CursorPage.<TaskDto>builder()
+                .items(page.stream().map(this::convertToDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /** Tasks created, updated or deleted since the cursor; see ChangeFeedService. */
+    @Transactional(readOnly = true)
+    public ChangeSetDto<TaskDto> getChangesSince(String since, Integer limit) {
+        return changeFeedService.changesSince(Tombstone.TYPE_TASK, since, limit,
+                taskRepository::findChangedSince, Task::getLastUpdatedAt, Task::getId, this::convertToDto);
+    }
+
+    /**
+     * Streams every task to {@code out} without materialising the full list. Called from the
+     * response-writing thread, so the transaction (and JDBC cursor) lives for the whole export.
+     */
+    @Transactional(readOnly = true)
+    public long exportTasks(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Long> ids = taskRepository.streamIdsForExport()) {
+            return streamingExporter.writeInChunks(ids, taskRepository::findAllForExportByIdIn,
+                    this::convertToDto, format, EXPORT_COLUMNS, out);
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<TaskDto> getTasksByAssignedTo(String assignedTo) {
         return taskRepository.findByAssignedTo(assignedTo).stream()
@@ -80,28 +219,45 @@ public class TaskService {
         return getTasksByCompanyId(userDto.getClientCrmId());
     }
 
+    /**
+     * Per-assignee workload and completion statistics, aggregated in the database.
+     * The optional window applies to task creation date (inclusive, whole days).
+     */
+    @Transactional(readOnly = true)
+    public List<AssigneeStatsDto> getAssigneeStats(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        boolean ranged = from != null || to != null;
+        LocalDateTime fromTs = from != null ? from.atStartOfDay() : LocalDateTime.of(1900, 1, 1, 0, 0);
+        LocalDateTime toTs = to != null ? to.plusDays(1).atStartOfDay() : LocalDateTime.of(9999, 12, 31, 0, 0);
+
+        return taskAssigneeRepository.aggregateAssigneeStats(ranged, fromTs, toTs, LocalDate.now()).stream()
+                .map(row -> {
+                    long total = row.getTotal() != null ? row.getTotal() : 0;
+                    long completed = row.getCompleted() != null ? row.getCompleted() : 0;
+                    return AssigneeStatsDto.builder()
+                            .assigneeEmail(row.getAssigneeEmail())
+                            .assigneeName(row.getAssigneeName())
+                            .total(total)
+                            .completed(completed)
+                            .inProgress(row.getInProgress() != null ? row.getInProgress() : 0)
+                            .pending(row.getPending() != null ? row.getPending() : 0)
+                            .overdue(row.getOverdue() != null ? row.getOverdue() : 0)
+                            .averageCompletionHours(row.getAverageCompletionHours())
+                            .completionRate(total > 0 ? (completed * 100.0) / total : 0)
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public TaskDto createTask(TaskDto dto) {
-        Task task = convertToEntity(dto);
-        Task saved = taskRepository.save(task);
-        
-        // Handle assignees
-        if (dto.getAssignedToList() != null && !dto.getAssignedToList().isEmpty()) {
-            syncTaskAssignees(saved, dto.getAssignedToList());
-            
-            // Send email notifications to all assignees
-            String assignedByName = UserService.getCurrentUsername();
-            for (String assigneeEmail : dto.getAssignedToList()) {
-                try {
-                    log.info("Sending task assignment email to: {} for task: {}", assigneeEmail, saved.getTitle());
-                    emailService.sendTaskAssignmentEmail(assigneeEmail, saved, assignedByName);
-                } catch (Exception e) {
-                    log.warn("Failed to send assignment email to {} for task {}: {}", 
-                             assigneeEmail, saved.getTitle(), e.getMessage());
-                }
-            }
-        }
-        
+        WriteEffects effects = new WriteEffects();
+        Task saved = taskRepository.save(newTask(dto, effects));
+        applyEffects(effects);
+
+        liveEventService.publishAfterCommit(Tombstone.TYPE_TASK, saved.getId(), LiveEventService.OP_CREATED, saved::getLastUpdatedAt);
         return convertToDto(saved);
     }
 
@@ -109,87 +265,283 @@ public class TaskService {
     public TaskDto updateTask(Long id, TaskDto dto) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
-        
+
+        WriteEffects effects = new WriteEffects();
+        applyUpdate(task, dto, effects);
+        Task updated = taskRepository.save(task);
+        applyEffects(effects);
+
+        liveEventService.publishAfterCommit(Tombstone.TYPE_TASK, updated.getId(), LiveEventService.OP_UPDATED, updated::getLastUpdatedAt);
+        return convertToDto(updated);
+    }
+
+    /**
+     * Creates up to {@link #MAX_BULK_SIZE} tasks in one transaction. Ids come from the pooled
+     * sequence, so tasks and assignees go out as JDBC batches; each assignee gets one email
+     * covering all of their new tasks.
+     */
+    @Transactional
+    public List<TaskDto> createTasks(List<TaskDto> dtos) {
+        requireBulkSize(dtos == null ? 0 : dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            TaskDto dto = dtos.get(i);
+            if (dto == null || dto.getTitle() == null || dto.getTitle().isBlank()) {
+                throw new IllegalArgumentException("Task at index " + i + " is missing a title");
+            }
+        }
+
+        WriteEffects effects = new WriteEffects();
+        resolveAssigneeNames(dtos, effects);
+        List<Task> tasks = new ArrayList<>(dtos.size());
+        for (TaskDto dto : dtos) {
+            tasks.add(newTask(dto, effects));
+        }
+        List<Task> saved = taskRepository.saveAll(tasks);
+        taskRepository.flush();
+        applyEffects(effects);
+
+        for (Task task : saved) {
+            liveEventService.publishAfterCommit(Tombstone.TYPE_TASK, task.getId(), LiveEventService.OP_CREATED, task::getLastUpdatedAt);
+        }
+        return saved.stream().map(this::convertToDto).collect(Collectors.toList());
+    }
+
+    /**
+     * Applies partial updates (same null-means-unchanged rules as {@link #updateTask}) to up to
+     * {@link #MAX_BULK_SIZE} tasks. Every dto must carry its task id; the whole batch fails if
+     * any task is missing.
+     */
+    @Transactional
+    public List<TaskDto> updateTasks(List<TaskDto> dtos) {
+        requireBulkSize(dtos == null ? 0 : dtos.size());
+        Map<Long, TaskDto> updates = new LinkedHashMap<>();
+        for (TaskDto dto : dtos) {
+            if (dto == null || dto.getId() == null) {
+                throw new IllegalArgumentException("Every task in a bulk update needs an id");
+            }
+            if (updates.put(dto.getId(), dto) != null) {
+                throw new IllegalArgumentException("Task " + dto.getId() + " appears more than once");
+            }
+        }
+
+        Map<Long, Task> tasks = loadForBulk(updates.keySet());
+        WriteEffects effects = new WriteEffects();
+        resolveAssigneeNames(dtos, effects);
+        updates.forEach((id, dto) -> applyUpdate(tasks.get(id), dto, effects));
+        // Flush here so @PreUpdate stamps lastUpdatedAt before the response is built
+        taskRepository.flush();
+        applyEffects(effects);
+
+        List<TaskDto> result = new ArrayList<>(updates.size());
+        for (Long id : updates.keySet()) {
+            Task task = tasks.get(id);
+            liveEventService.publishAfterCommit(Tombstone.TYPE_TASK, id, LiveEventService.OP_UPDATED, task::getLastUpdatedAt);
+            result.add(convertToDto(task));
+        }
+        return result;
+    }
+
+    /**
+     * Moves up to {@link #MAX_BULK_SIZE} tasks to {@code status} with a single UPDATE statement.
+     * Tasks entering the completed bucket credit their assignees exactly as {@link #updateTask} does.
+     */
+    @Transactional
+    public List<TaskDto> updateTaskStatuses(List<Long> ids, String status) {
+        if (status == null || status.isBlank()) {
+            throw new IllegalArgumentException("Status is required");
+        }
+        Set<Long> uniqueIds = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id == null) {
+                    throw new IllegalArgumentException("Task ids must not be null");
+                }
+                uniqueIds.add(id);
+            }
+        }
+        requireBulkSize(uniqueIds.size());
+
+        Map<Long, Task> tasks = loadForBulk(uniqueIds);
+        TaskStatusBucket bucket = TaskStatusBucket.fromStatus(status);
+        WriteEffects effects = new WriteEffects();
+        if (bucket == TaskStatusBucket.COMPLETED) {
+            for (Task task : tasks.values()) {
+                if (TaskStatusBucket.fromStatus(task.getStatus()) != TaskStatusBucket.COMPLETED) {
+                    creditCompletion(task, effects);
+                }
+            }
+        }
+
+        String user = UserService.getCurrentUsername();
+        LocalDateTime now = LocalDateTime.now();
+        taskRepository.bulkUpdateStatus(uniqueIds, status, bucket, user, now);
+        applyEffects(effects);
+
+        // The bulk UPDATE cleared the persistence context; patch the detached copies for the response
+        List<TaskDto> result = new ArrayList<>(uniqueIds.size());
+        for (Long id : uniqueIds) {
+            Task task = tasks.get(id);
+            task.setStatus(status);
+            task.setStatusBucket(bucket);
+            task.setLastUpdatedBy(user);
+            task.setLastUpdatedAt(now);
+            liveEventService.publishAfterCommit(Tombstone.TYPE_TASK, id, LiveEventService.OP_UPDATED, task::getLastUpdatedAt);
+            result.add(convertToDto(task));
+        }
+        return result;
+    }
+
+    @Transactional
+    public void deleteTask(Long id) {
+        if (!taskRepository.existsById(id)) {
+            throw new RuntimeException("Task not found with id: " + id);
+        }
+        taskRepository.deleteById(id);
+        changeFeedService.recordDeletion(Tombstone.TYPE_TASK, id);
+        liveEventService.publishAfterCommit(Tombstone.TYPE_TASK, id, LiveEventService.OP_DELETED, null);
+    }
+
+    private Task newTask(TaskDto dto, WriteEffects effects) {
+        Task task = convertToEntity(dto);
+        if (dto.getAssignedToList() != null && !dto.getAssignedToList().isEmpty()) {
+            syncTaskAssignees(task, dto.getAssignedToList(), effects);
+            for (TaskAssignee assignee : task.getAssignees()) {
+                effects.assigned(assignee.getAssigneeEmail(), task);
+            }
+        }
+        return task;
+    }
+
+    private void applyUpdate(Task task, TaskDto dto, WriteEffects effects) {
         // Check if task is being marked as completed
-        String oldStatus = task.getStatus();
-        boolean wasCompleted = "completed".equalsIgnoreCase(oldStatus) || 
-                               "done".equalsIgnoreCase(oldStatus) ||
-                               "posted".equalsIgnoreCase(oldStatus);
-        
+        boolean wasCompleted = TaskStatusBucket.fromStatus(task.getStatus()) == TaskStatusBucket.COMPLETED;
+
         // Get old assignees before update
-        Set<String> oldAssignees = task.getAssignees() != null ? 
+        Set<String> oldAssignees = task.getAssignees() != null ?
             task.getAssignees().stream()
-                .map(assignee -> assignee.getAssigneeEmail())
-                .collect(Collectors.toSet()) : 
+                .map(TaskAssignee::getAssigneeEmail)
+                .collect(Collectors.toSet()) :
             new HashSet<>();
-        
+
         updateEntityFromDto(task, dto);
-        
+
         // Handle assignees update
         if (dto.getAssignedToList() != null) {
-            syncTaskAssignees(task, dto.getAssignedToList());
-            
-            // Send email notifications to newly added assignees only
-            Set<String> newAssignees = new HashSet<>(dto.getAssignedToList());
-            newAssignees.removeAll(oldAssignees); // Keep only the new ones
-            
-            if (!newAssignees.isEmpty()) {
-                String assignedByName = UserService.getCurrentUsername();
-                for (String newAssigneeEmail : newAssignees) {
-                    try {
-                        log.info("Sending task assignment email to newly added assignee: {} for task: {}", 
-                                 newAssigneeEmail, task.getTitle());
-                        emailService.sendTaskAssignmentEmail(newAssigneeEmail, task, assignedByName);
-                    } catch (Exception e) {
-                        log.warn("Failed to send assignment email to {} for task {}: {}", 
-                                 newAssigneeEmail, task.getTitle(), e.getMessage());
-                    }
+            syncTaskAssignees(task, dto.getAssignedToList(), effects);
+
+            // Assignee rows live in their own table; bump the task so delta sync picks the change up
+            Set<String> currentAssignees = task.getAssignees().stream()
+                    .map(TaskAssignee::getAssigneeEmail)
+                    .collect(Collectors.toSet());
+            if (!currentAssignees.equals(oldAssignees)) {
+                task.setLastUpdatedAt(LocalDateTime.now());
+            }
+
+            // Email newly added assignees only; they are sent after commit
+            for (String email : currentAssignees) {
+                if (!oldAssignees.contains(email)) {
+                    effects.assigned(email, task);
                 }
             }
         }
-        
+
         // If status changed to completed, increment counter for all assignees
-        String newStatus = task.getStatus();
-        boolean isNowCompleted = "completed".equalsIgnoreCase(newStatus) ||
-                                 "done".equalsIgnoreCase(newStatus) ||
-                                 "posted".equalsIgnoreCase(newStatus);
-        
+        boolean isNowCompleted = TaskStatusBucket.fromStatus(task.getStatus()) == TaskStatusBucket.COMPLETED;
         if (!wasCompleted && isNowCompleted) {
-            // Increment for all assignees in the new system
-            if (task.getAssignees() != null && !task.getAssignees().isEmpty()) {
-                for (TaskAssignee assignee : task.getAssignees()) {
-                    try {
-                        userService.incrementTasksCompleted(assignee.getAssigneeEmail());
-                    } catch (Exception e) {
-                        log.warn("Could not increment tasks for user: {}", assignee.getAssigneeEmail(), e);
-                    }
-                }
-            } 
-            // Fallback for old single assignedTo field (backward compatibility)
-            else if (task.getAssignedTo() != null && !task.getAssignedTo().isEmpty()) {
-                String assignedTo = task.getAssignedTo();
-                if (assignedTo.contains("@")) {
-                    try {
-                        userService.incrementTasksCompleted(assignedTo);
-                    } catch (Exception e) {
-                        log.warn("Could not increment tasks for user: {}", assignedTo, e);
-                    }
-                }
+            creditCompletion(task, effects);
+        }
+    }
+
+    private void creditCompletion(Task task, WriteEffects effects) {
+        if (task.getAssignees() != null && !task.getAssignees().isEmpty()) {
+            for (TaskAssignee assignee : task.getAssignees()) {
+                effects.completedBy.add(assignee.getAssigneeEmail());
             }
         }
-        
-        Task updated = taskRepository.save(task);
-        return convertToDto(updated);
+        // Fallback for old single assignedTo field (backward compatibility)
+        else if (task.getAssignedTo() != null && task.getAssignedTo().contains("@")) {
+            effects.completedBy.add(task.getAssignedTo());
+        }
     }
 
-    public void deleteTask(Long id) {
-        if (!taskRepository.existsById(id)) {
-            throw new RuntimeException("Task not found with id: " + id);
+    private void applyEffects(WriteEffects effects) {
+        if (!effects.newAssignments.isEmpty()) {
+            String assignedByName = UserService.getCurrentUsername();
+            effects.newAssignments.forEach((recipient, tasks) -> {
+                log.info("Queueing task assignment email to: {} for {} task(s)", recipient, tasks.size());
+                emailOutboxService.enqueueTaskAssignments(recipient, tasks, assignedByName);
+            });
+        }
+        if (!effects.completedBy.isEmpty()) {
+            int credited = userService.incrementTasksCompleted(effects.completedBy);
+            long distinct = effects.completedBy.stream().distinct().count();
+            if (credited < distinct) {
+                log.warn("Could not increment tasks for {} of {} users (no matching account): {}",
+                        distinct - credited, distinct, effects.completedBy);
+            }
         }
-        taskRepository.deleteById(id);
     }
 
-    private TaskDto convertToDto(Task entity) {
+    private Map<Long, Task> loadForBulk(Set<Long> ids) {
+        Map<Long, Task> tasks = taskRepository.findAllWithAssigneesByIdIn(ids).stream()
+                .collect(Collectors.toMap(Task::getId, task -> task));
+        if (tasks.size() < ids.size()) {
+            List<Long> missing = ids.stream().filter(id -> !tasks.containsKey(id)).collect(Collectors.toList());
+            throw new RuntimeException("Tasks not found with ids: " + missing);
+        }
+        return tasks;
+    }
+
+    private static void requireBulkSize(int size) {
+        if (size == 0) {
+            throw new IllegalArgumentException("At least one task is required");
+        }
+        if (size > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " tasks can be changed per request");
+        }
+    }
+
+    private TaskStatusBucket normalizeStatusBucket(String status) {
+        if (status == null || status.isBlank() || "all".equalsIgnoreCase(status)) {
+            return null;
+        }
+        try {
+            return TaskStatusBucket.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported status filter '" + status + "'. Use 'active', 'completed' or 'all'");
+        }
+    }
+
+    private String encodeCursor(String sortKind, String sortValue, Long id) {
+        String raw = sortKind + "|" + sortValue + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor, String expectedSortKind) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !parts[0].equals(expectedSortKind)) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            // Validate eagerly so a tampered cursor surfaces as a bad request rather than a query error
+            if (expectedSortKind.equals("D")) {
+                LocalDate.parse(parts[1]);
+            } else {
+                LocalDateTime.parse(parts[1]);
+            }
+            Long.parseLong(parts[2]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    // Package-private for DtoConversionBenchmark (src/jmh)
+    TaskDto convertToDto(Task entity) {
         TaskDto dto = TaskDto.builder()
                 .id(entity.getId())
                 .title(entity.getTitle())
@@ -252,43 +604,85 @@ public class TaskService {
         entity.setLastUpdatedBy(user);
     }
     
-    private void syncTaskAssignees(Task task, List<String> assigneeEmails) {
+    private void syncTaskAssignees(Task task, List<String> assigneeEmails, WriteEffects effects) {
         // Initialize assignees list if null
         if (task.getAssignees() == null) {
             task.setAssignees(new ArrayList<>());
         }
-        
-        // Remove existing assignees
-        task.getAssignees().clear();
-        
-        // Remove duplicates and filter invalid emails
-        Set<String> uniqueEmails = new HashSet<>();
+
+        Set<String> wanted = normalizeAssignees(assigneeEmails);
+
+        // Diff against the current rows: only removed and added assignees touch task_assignees,
+        // and unchanged assignees keep their row and original assignedAt
+        task.getAssignees().removeIf(assignee -> !wanted.contains(assignee.getAssigneeEmail().toLowerCase()));
+        Set<String> kept = task.getAssignees().stream()
+                .map(assignee -> assignee.getAssigneeEmail().toLowerCase())
+                .collect(Collectors.toSet());
+        List<String> added = wanted.stream()
+                .filter(email -> !kept.contains(email))
+                .collect(Collectors.toList());
+
+        resolveAssigneeNames(added, effects);
+        for (String email : added) {
+            task.getAssignees().add(TaskAssignee.builder()
+                    .task(task)
+                    .assigneeEmail(email)
+                    .assigneeName(effects.assigneeNames.get(email))
+                    .build());
+        }
+    }
+
+    // Remove duplicates and filter invalid emails
+    private static Set<String> normalizeAssignees(List<String> assigneeEmails) {
+        Set<String> uniqueEmails = new LinkedHashSet<>();
         for (String email : assigneeEmails) {
             if (email != null && !email.trim().isEmpty() && !email.equalsIgnoreCase("unassigned")) {
                 uniqueEmails.add(email.trim().toLowerCase());
             }
         }
-        
-        // Add new assignees
-        for (String email : uniqueEmails) {
-            try {
-                var user = userService.getUserByEmail(email);
-                TaskAssignee assignee = TaskAssignee.builder()
-                        .task(task)
-                        .assigneeEmail(email)
-                        .assigneeName(user.getName())
-                        .build();
-                task.getAssignees().add(assignee);
-            } catch (Exception e) {
-                log.warn("User not found for email: {}, adding with email only", email);
+        return uniqueEmails;
+    }
+
+    /** Looks up display names for emails not yet in {@code effects}, in one query. */
+    private void resolveAssigneeNames(Collection<String> emails, WriteEffects effects) {
+        List<String> unresolved = emails.stream()
+                .filter(email -> !effects.assigneeNames.containsKey(email))
+                .distinct()
+                .collect(Collectors.toList());
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        Map<String, String> names = userService.getNamesByEmail(unresolved);
+        for (String email : unresolved) {
+            String name = names.get(email);
+            if (name == null) {
                 // User not found, add with email only
-                TaskAssignee assignee = TaskAssignee.builder()
-                        .task(task)
-                        .assigneeEmail(email)
-                        .assigneeName(email)
-                        .build();
-                task.getAssignees().add(assignee);
+                log.warn("User not found for email: {}, adding with email only", email);
+                name = email;
             }
+            effects.assigneeNames.put(email, name);
+        }
+    }
+
+    // Bulk writes resolve every assignee named anywhere in the request up front
+    private void resolveAssigneeNames(List<TaskDto> dtos, WriteEffects effects) {
+        resolveAssigneeNames(dtos.stream()
+                .filter(dto -> dto.getAssignedToList() != null)
+                .flatMap(dto -> normalizeAssignees(dto.getAssignedToList()).stream())
+                .collect(Collectors.toSet()), effects);
+    }
+
+    /**
+     * Side effects collected while tasks are written and applied once at the end, so a bulk
+     * change sends one email per recipient and resolves each assignee name only once.
+     */
+    private static final class WriteEffects {
+        private final Map<String, String> assigneeNames = new HashMap<>();
+        private final Map<String, List<Task>> newAssignments = new LinkedHashMap<>();
+        private final List<String> completedBy = new ArrayList<>();
+
+        private void assigned(String recipient, Task task) {
+            newAssignments.computeIfAbsent(recipient, key -> new ArrayList<>()).add(task);
         }
     }
 }
@@ -0,0 +1,156 @@
+package com.incial.crm.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.incial.crm.config.ReplicaLagMonitor;
+import com.incial.crm.dto.UserDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory user directory behind {@link UserService}: users by id and by email, plus the
+ * {@code getAllUsers} snapshot. Entries expire after {@code users.cache.ttl-seconds}; writes
+ * evict once their transaction commits, so a reader never re-caches the pre-commit row.
+ * <p>
+ * The snapshot is keyed by the users collection version (the /users/all ETag), so a body is
+ * never served under a newer tag, even when the write happened on another instance. Lookups by
+ * id and email are per instance and may lag a remote write by up to the TTL.
+ * The two maps are filled independently: populating one from the other's load could put back
+ * a row that an eviction had just removed. Callers always get copies, never the cached DTOs.
+ * <p>
+ * With a read replica, a read-only transaction can load a row from before the write and cache
+ * it for the whole TTL. Every eviction therefore runs once more after the replica's stale-read
+ * window has passed.
+ */
+@Component
+public class UserDirectory {
+
+    private final Cache<Long, UserDto> byId;
+    private final Cache<String, UserDto> byEmail;
+    private final Cache<String, List<UserDto>> snapshots;
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final TaskScheduler taskScheduler;
+
+    public UserDirectory(@Value("${users.cache.ttl-seconds:300}") long ttlSeconds,
+                         @Value("${users.cache.max-size:10000}") long maxSize,
+                         ObjectProvider<MeterRegistry> meterRegistry,
+                         ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+                         ObjectProvider<TaskScheduler> taskScheduler) {
+        this.replicaLagMonitor = replicaLagMonitor.getIfAvailable();
+        this.taskScheduler = taskScheduler.getIfAvailable();
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.byId = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSize).recordStats().build();
+        this.byEmail = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSize).recordStats().build();
+        // Only the current version is ever asked for; one spare covers a poll racing a write
+        this.snapshots = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(2).recordStats().build();
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, byId, "users.by-id");
+            CaffeineCacheMetrics.monitor(registry, byEmail, "users.by-email");
+            CaffeineCacheMetrics.monitor(registry, snapshots, "users.all");
+        });
+    }
+
+    /** Cached user, or the loader's result; null (not cached) when the loader finds nothing. */
+    public UserDto byId(Long id, Function<Long, UserDto> loader) {
+        UserDto user = byId.get(id, loader);
+        return user == null ? null : copy(user);
+    }
+
+    public UserDto byEmail(String email, Function<String, UserDto> loader) {
+        UserDto user = byEmail.get(email, loader);
+        return user == null ? null : copy(user);
+    }
+
+    /** Users for {@code emails}; misses go to {@code loader} in one call. Unknown emails are absent. */
+    public Map<String, UserDto> byEmails(Collection<String> emails,
+                                         Function<Set<String>, Map<String, UserDto>> loader) {
+        return byEmail.getAll(emails, missing -> loader.apply(Collections.unmodifiableSet(missing))).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> copy(entry.getValue())));
+    }
+
+    public List<UserDto> allUsers(String version, Supplier<List<UserDto>> loader) {
+        List<UserDto> users = snapshots.get(version, key -> List.copyOf(loader.get()));
+        return users.stream().map(UserDirectory::copy).collect(Collectors.toList());
+    }
+
+    /** Evicts one user now and again after the current transaction commits. */
+    public void evictAfterCommit(Long id, String email) {
+        runNowAndAfterCommit(() -> {
+            if (id != null) {
+                byId.invalidate(id);
+            }
+            if (email != null) {
+                byEmail.invalidate(email);
+            }
+            snapshots.invalidateAll();
+        });
+    }
+
+    /** Evicts users by email, e.g. after a set-based UPDATE that never loaded the entities. */
+    public void evictAfterCommit(Collection<String> emails) {
+        Set<String> evicted = new HashSet<>(emails);
+        runNowAndAfterCommit(() -> {
+            byEmail.invalidateAll(evicted);
+            byId.asMap().values().removeIf(user -> evicted.contains(user.getEmail()));
+            snapshots.invalidateAll();
+        });
+    }
+
+    public void clear() {
+        byId.invalidateAll();
+        byEmail.invalidateAll();
+        snapshots.invalidateAll();
+    }
+
+    // Evicting before commit alone would let a concurrent read re-cache the old row
+    private void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                    runAfterReplicaCatchesUp(eviction);
+                }
+            });
+        } else {
+            runAfterReplicaCatchesUp(eviction);
+        }
+    }
+
+    private void runAfterReplicaCatchesUp(Runnable eviction) {
+        if (replicaLagMonitor != null && taskScheduler != null) {
+            taskScheduler.schedule(eviction, Instant.now().plus(replicaLagMonitor.staleReadWindow()));
+        }
+    }
+
+    private static UserDto copy(UserDto user) {
+        return UserDto.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .tasksCompleted(user.getTasksCompleted())
+                .avatarUrl(user.getAvatarUrl())
+                .clientCrmId(user.getClientCrmId())
+                .build();
+    }
+}
@@ -1,15 +1,23 @@
 package com.incial.crm.service;
 
 import com.incial.crm.dto.UserDto;
+import com.incial.crm.dto.Versioned;
 import com.incial.crm.entity.User;
 import com.incial.crm.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,30 +25,82 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
 
+    /** Served from the in-memory snapshot for the current collection version. */
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
+        return userDirectory.allUsers(getUsersVersion(), this::loadAllUsers);
+    }
+
+    private List<UserDto> loadAllUsers() {
         return userRepository.findAll().stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
 
+    /** The users with their ETag from one read-only transaction; see {@link TaskService#getAllTasks(Predicate)}. */
+    @Transactional(readOnly = true)
+    public Versioned<List<UserDto>> getAllUsers(Predicate<String> notModified) {
+        String etag = getUsersVersion();
+        return new Versioned<>(etag, notModified.test(etag) ? null : userDirectory.allUsers(etag, this::loadAllUsers));
+    }
+
+    /** ETag for {@link #getAllUsers()}; take it before loading the users. */
+    @Transactional(readOnly = true)
+    public String getUsersVersion() {
+        return "\"users-" + userRepository.findCollectionVersion().fingerprint() + "\"";
+    }
+
+    // Single-user lookups stay non-transactional: most are cache hits and should not take a connection
     public UserDto getUserById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
-        return convertToDto(user);
+        UserDto user = userDirectory.byId(id, key -> userRepository.findById(key).map(this::convertToDto).orElse(null));
+        if (user == null) {
+            throw new RuntimeException("User not found with id: " + id);
+        }
+        return user;
     }
 
     public UserDto getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
-        return convertToDto(user);
+        UserDto user = userDirectory.byEmail(email, key -> userRepository.findByEmail(key).map(this::convertToDto).orElse(null));
+        if (user == null) {
+            throw new RuntimeException("User not found with email: " + email);
+        }
+        return user;
     }
 
-    public void incrementTasksCompleted(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
-        user.setTasksCompleted(user.getTasksCompleted() + 1);
-        userRepository.save(user);
+    /** Display names keyed by email; cache misses are fetched in one query. Emails without an account are absent. */
+    public Map<String, String> getNamesByEmail(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Map.of();
+        }
+        return userDirectory.byEmails(emails, missing -> userRepository.findAllByEmailIn(missing).stream()
+                        .collect(Collectors.toMap(User::getEmail, this::convertToDto, (first, second) -> first)))
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getName()));
+    }
+
+    /**
+     * Credits one completed task per occurrence of each email, e.g. [a, a, b] adds 2 to a and 1
+     * to b. Runs one UPDATE per distinct increment (usually just one), so parallel completions
+     * never lose counts. Returns the number of users credited; unknown emails are skipped.
+     */
+    @Transactional
+    public int incrementTasksCompleted(Collection<String> emails) {
+        Map<String, Long> perEmail = emails.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        Map<Long, List<String>> byDelta = perEmail.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+
+        LocalDateTime now = LocalDateTime.now();
+        int credited = 0;
+        for (Map.Entry<Long, List<String>> group : byDelta.entrySet()) {
+            credited += userRepository.incrementTasksCompleted(group.getValue(), group.getKey().intValue(), now);
+        }
+        userDirectory.evictAfterCommit(perEmail.keySet());
+        return credited;
     }
 
     private UserDto convertToDto(User entity) {
@@ -51,6 +111,7 @@ public class UserService {
                 .role(entity.getRole())
                 .tasksCompleted(entity.getTasksCompleted())
                 .avatarUrl(entity.getAvatarUrl())
+                .clientCrmId(entity.getClientCrmId())
                 .build();
     }
 
@@ -60,6 +121,7 @@ public class UserService {
 
         if(user.isPresent()){
             userRepository.deleteById(id);
+            userDirectory.evictAfterCommit(id, user.get().getEmail());
         }
         return null;
     }
@@ -79,6 +141,7 @@ public class UserService {
 
         updateEntityFromDto(user, userDto);
         User updated = userRepository.save(user);
+        userDirectory.evictAfterCommit(updated.getId(), updated.getEmail());
         return convertToDto(updated);
     }
 
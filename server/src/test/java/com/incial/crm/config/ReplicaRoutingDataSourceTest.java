@@ -0,0 +1,139 @@
+package com.incial.crm.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** A second in-memory H2 database stands in for the replica; each says which one it is. */
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private DataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("CREATE TABLE replica_status (lag_seconds DOUBLE)");
+        replicaJdbc.update("INSERT INTO replica_status VALUES (0.5)");
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        lagMonitor = new ReplicaLagMonitor(replica, "SELECT lag_seconds FROM replica_status",
+                Duration.ofSeconds(2), Duration.ofSeconds(5), meterRegistry);
+        routing = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, lagMonitor, meterRegistry));
+
+        jdbc = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaOnceItIsKnownToBeCurrent() {
+        // Until the first probe the replica's state is unknown
+        assertThat(readOnly.<String>execute(status -> whichDatabase())).isEqualTo("primary");
+
+        lagMonitor.probe();
+
+        assertThat(lagMonitor.isReplicaUsable()).isTrue();
+        assertThat(readOnly.<String>execute(status -> whichDatabase())).isEqualTo("replica");
+        assertThat(readWrite.<String>execute(status -> whichDatabase())).isEqualTo("primary");
+        assertThat(whichDatabase()).isEqualTo("primary");
+    }
+
+    @Test
+    void writesInsideReadWriteTransactionsStayOnThePrimary() {
+        lagMonitor.probe();
+        readWrite.executeWithoutResult(status -> jdbc.update("UPDATE whoami SET name = 'primary-updated'"));
+
+        assertThat(primaryJdbc.queryForObject("SELECT name FROM whoami", String.class)).isEqualTo("primary-updated");
+        assertThat(replicaJdbc.queryForObject("SELECT name FROM whoami", String.class)).isEqualTo("replica");
+    }
+
+    @Test
+    void laggingOrUnreachableReplicaFallsBackToThePrimary() {
+        lagMonitor.probe();
+        replicaJdbc.update("UPDATE replica_status SET lag_seconds = 30");
+        lagMonitor.probe();
+        assertThat(readOnly.<String>execute(status -> whichDatabase())).isEqualTo("primary");
+
+        replicaJdbc.update("UPDATE replica_status SET lag_seconds = 0");
+        lagMonitor.probe();
+        assertThat(readOnly.<String>execute(status -> whichDatabase())).isEqualTo("replica");
+
+        replicaJdbc.execute("DROP TABLE replica_status");
+        lagMonitor.probe();
+        assertThat(readOnly.<String>execute(status -> whichDatabase())).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyJpaTransactionsAreRoutedToo() {
+        // The application runs on JpaTransactionManager, which opens its connection as the
+        // transaction begins; the lazy proxy must still defer the choice to the first statement
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(routing);
+        factoryBean.setPackagesToScan("com.incial.crm.config");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        try {
+            JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+            TransactionTemplate jpaReadOnly = new TransactionTemplate(transactionManager);
+            jpaReadOnly.setReadOnly(true);
+            TransactionTemplate jpaReadWrite = new TransactionTemplate(transactionManager);
+            lagMonitor.probe();
+
+            String readOnlyDatabase = jpaReadOnly.execute(status -> whichDatabase(entityManagerFactory));
+            String readWriteDatabase = jpaReadWrite.execute(status -> whichDatabase(entityManagerFactory));
+
+            assertThat(readOnlyDatabase).isEqualTo("replica");
+            assertThat(readWriteDatabase).isEqualTo("primary");
+        } finally {
+            factoryBean.destroy();
+        }
+    }
+
+    private static String whichDatabase(EntityManagerFactory entityManagerFactory) {
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        return (String) entityManager.createNativeQuery("SELECT name FROM whoami").getSingleResult();
+    }
+
+    private String whichDatabase() {
+        return jdbc.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE whoami (name VARCHAR(32))");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,94 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.entity.Task;
+import com.incial.crm.entity.TaskAssignee;
+import com.incial.crm.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the grouped assignee aggregate credits every way a task can be assigned: rows in
+ * task_assignees with any email casing, and legacy tasks whose assigned_to holds an email or a
+ * user's name.
+ */
+@DataJpaTest
+class AssigneeStatsQueryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TaskAssigneeRepository taskAssigneeRepository;
+
+    @BeforeEach
+    void seed() {
+        entityManager.persist(user("Jane Doe", "Jane.Doe@Incial.com"));
+        entityManager.persist(user("Arjun", "arjun@incial.com"));
+
+        // Multi-assignee rows, written with whatever casing the client sent
+        Task shared = task("Shared", "Completed", null);
+        entityManager.persist(shared);
+        entityManager.persist(assignee(shared, "JANE.DOE@incial.com", "Jane Doe"));
+        entityManager.persist(assignee(shared, "Arjun@Incial.com", "Arjun"));
+
+        Task janeOnly = task("Jane only", "In Progress", null);
+        entityManager.persist(janeOnly);
+        entityManager.persist(assignee(janeOnly, "jane.doe@incial.com", "Jane Doe"));
+
+        // Legacy tasks with no task_assignees rows
+        entityManager.persist(task("Legacy by email", "Not Started", "Jane.Doe@INCIAL.com"));
+        entityManager.persist(task("Legacy by name", "Done", "Arjun"));
+        entityManager.persist(task("Legacy overdue", "In Review", "Jane Doe"));
+        entityManager.persist(task("Nobody", "Not Started", "Unassigned"));
+        entityManager.persist(task("Departed user", "Not Started", "Someone Who Left"));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void groupsMixedCaseEmailsAndLegacyAssignments() {
+        Map<String, TaskAssigneeRepository.AssigneeStatsRow> rows = taskAssigneeRepository
+                .aggregateAssigneeStats(false, null, null, TODAY).stream()
+                .collect(Collectors.toMap(TaskAssigneeRepository.AssigneeStatsRow::getAssigneeEmail, Function.identity()));
+
+        assertThat(rows).containsOnlyKeys("jane.doe@incial.com", "arjun@incial.com");
+
+        TaskAssigneeRepository.AssigneeStatsRow jane = rows.get("jane.doe@incial.com");
+        assertThat(jane.getTotal()).isEqualTo(4);
+        assertThat(jane.getCompleted()).isEqualTo(1);
+        assertThat(jane.getInProgress()).isEqualTo(2);
+        assertThat(jane.getPending()).isEqualTo(1);
+        assertThat(jane.getOverdue()).isEqualTo(1);
+
+        TaskAssigneeRepository.AssigneeStatsRow arjun = rows.get("arjun@incial.com");
+        assertThat(arjun.getTotal()).isEqualTo(2);
+        assertThat(arjun.getCompleted()).isEqualTo(2);
+        assertThat(arjun.getInProgress()).isZero();
+    }
+
+    private static User user(String name, String email) {
+        return User.builder().name(name).email(email).passwordHash("x").role("ROLE_EMPLOYEE").build();
+    }
+
+    private static Task task(String title, String status, String assignedTo) {
+        LocalDate due = "Legacy overdue".equals(title) ? TODAY.minusDays(3) : TODAY.plusDays(7);
+        return Task.builder().title(title).status(status).assignedTo(assignedTo).dueDate(due).build();
+    }
+
+    private static TaskAssignee assignee(Task task, String email, String name) {
+        return TaskAssignee.builder().task(task).assigneeEmail(email).assigneeName(name).build();
+    }
+}
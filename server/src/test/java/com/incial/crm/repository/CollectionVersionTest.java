@@ -0,0 +1,44 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.entity.Meeting;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class CollectionVersionTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Test
+    void fingerprintChangesOnInsertUpdateAndDelete() {
+        Meeting first = meetingRepository.saveAndFlush(meeting("Kickoff"));
+        Meeting second = meetingRepository.saveAndFlush(meeting("Review"));
+        String afterInserts = meetingRepository.findCollectionVersion().fingerprint();
+        assertThat(meetingRepository.findCollectionVersion().fingerprint()).isEqualTo(afterInserts);
+
+        first.setTitle("Kickoff (moved)");
+        meetingRepository.saveAndFlush(first);
+        String afterUpdate = meetingRepository.findCollectionVersion().fingerprint();
+        assertThat(afterUpdate).isNotEqualTo(afterInserts);
+
+        // Deletes lower the row count even when no remaining row was touched
+        meetingRepository.delete(second);
+        meetingRepository.flush();
+        entityManager.clear();
+        assertThat(meetingRepository.findCollectionVersion().fingerprint()).isNotEqualTo(afterUpdate);
+    }
+
+    private static Meeting meeting(String title) {
+        return Meeting.builder().title(title).dateTime(LocalDateTime.now()).build();
+    }
+}
@@ -0,0 +1,157 @@
+package com.incial.crm.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.incial.crm.entity.CrmEntry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the native analytics aggregates and checks their buckets against the grouping the
+ * Analytics page used to do in the browser over the full entry list.
+ * <p>
+ * H2 has no jsonb, so the two PostgreSQL pieces the lead source query uses are mapped onto a
+ * VARCHAR domain and a Jackson-backed alias.
+ */
+@DataJpaTest
+class CrmAnalyticsQueryTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Same placeholders CrmService binds when no range is requested
+    private static final LocalDate UNBOUNDED_FROM = LocalDate.of(1900, 1, 1);
+    private static final LocalDate UNBOUNDED_TO = LocalDate.of(9999, 12, 31);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CrmEntryRepository crmEntryRepository;
+
+    private List<CrmEntry> entries;
+
+    @BeforeEach
+    void seed() {
+        entityManager.createNativeQuery("CREATE DOMAIN IF NOT EXISTS JSONB AS VARCHAR(1000)").executeUpdate();
+        entityManager.createNativeQuery("CREATE ALIAS IF NOT EXISTS JSONB_EXTRACT_PATH_TEXT FOR "
+                + "'com.incial.crm.repository.CrmAnalyticsQueryTest$H2Json.extractPathText'").executeUpdate();
+
+        entries = List.of(
+                entry("Acme", "Onboarded", "1200.00", "Arjun", LocalDate.of(2025, 1, 10), List.of("Referral", "Website")),
+                entry("Globex", "onboarded", "800.00", "Arjun", LocalDate.of(2025, 1, 22), List.of("Instagram")),
+                entry("Initech", "Lead", null, null, LocalDate.of(2025, 2, 3), List.of("Referral")),
+                entry("Umbrella", "Completed", "5000.00", "Jane", LocalDate.of(2025, 3, 14), List.of()),
+                entry("Hooli", "drop", "0.00", "", LocalDate.of(2025, 3, 30), null),
+                entry("Stark", null, "250.50", "Jane", LocalDate.of(2024, 12, 5), List.of("", "Website")));
+        entries.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void statusBucketsMatchInMemoryGrouping() {
+        Map<String, Long> expected = entries.stream().collect(Collectors.groupingBy(
+                e -> e.getStatus() == null || e.getStatus().isEmpty() ? "unknown" : e.getStatus().toLowerCase(),
+                TreeMap::new, Collectors.counting()));
+
+        assertThat(counts(crmEntryRepository.aggregateByStatus(false, UNBOUNDED_FROM, UNBOUNDED_TO))).isEqualTo(expected);
+    }
+
+    @Test
+    void leadSourceBucketsMatchInMemoryGrouping() {
+        Map<String, BigDecimal> expected = entries.stream().collect(Collectors.groupingBy(
+                e -> e.getLeadSources() != null && !e.getLeadSources().isEmpty() && !e.getLeadSources().get(0).isEmpty()
+                        ? e.getLeadSources().get(0) : "Unknown",
+                TreeMap::new, Collectors.reducing(BigDecimal.ZERO, CrmAnalyticsQueryTest::dealValue, BigDecimal::add)));
+
+        assertThat(dealValues(crmEntryRepository.aggregateByLeadSource(false, UNBOUNDED_FROM, UNBOUNDED_TO))).isEqualTo(expected);
+    }
+
+    @Test
+    void leadSourcesThatAreNotJsonArraysCountAsUnknown() {
+        entityManager.createNativeQuery("INSERT INTO crm_entries (company, status, deal_value, lead_sources, last_updated_at) "
+                + "VALUES ('Legacy text', 'lead', 100, 'Referral', CURRENT_TIMESTAMP), "
+                + "('Legacy scalar', 'lead', 100, '\"Website\"', CURRENT_TIMESTAMP)").executeUpdate();
+
+        Map<String, BigDecimal> buckets = dealValues(crmEntryRepository.aggregateByLeadSource(false, UNBOUNDED_FROM, UNBOUNDED_TO));
+
+        // Umbrella (no sources), Hooli (null) and Stark (empty first source) plus the two legacy rows
+        assertThat(buckets.get("Unknown")).isEqualByComparingTo("5450.50");
+        assertThat(buckets.get("Referral")).isEqualByComparingTo("1200.00");
+    }
+
+    @Test
+    void assigneeBucketsMatchInMemoryGrouping() {
+        Map<String, Long> expected = entries.stream().collect(Collectors.groupingBy(
+                e -> e.getAssignedTo() == null || e.getAssignedTo().isEmpty() ? "Unassigned" : e.getAssignedTo(),
+                TreeMap::new, Collectors.counting()));
+
+        assertThat(counts(crmEntryRepository.aggregateByAssignee(false, UNBOUNDED_FROM, UNBOUNDED_TO))).isEqualTo(expected);
+    }
+
+    @Test
+    void monthBucketsMatchInMemoryGrouping() {
+        Map<String, Long> expected = entries.stream().collect(Collectors.groupingBy(
+                e -> e.getLastContact().toString().substring(0, 7), TreeMap::new, Collectors.counting()));
+
+        assertThat(counts(crmEntryRepository.aggregateByMonth(false, UNBOUNDED_FROM, UNBOUNDED_TO))).isEqualTo(expected);
+    }
+
+    @Test
+    void rangeFiltersOnActivityDate() {
+        Map<String, Long> buckets = counts(crmEntryRepository.aggregateByMonth(
+                true, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 28)));
+
+        assertThat(buckets).containsOnly(Map.entry("2025-01", 2L), Map.entry("2025-02", 1L));
+    }
+
+    private static CrmEntry entry(String company, String status, String dealValue, String assignedTo,
+                                  LocalDate lastContact, List<String> leadSources) {
+        return CrmEntry.builder()
+                .company(company)
+                .status(status)
+                .dealValue(dealValue == null ? null : new BigDecimal(dealValue))
+                .assignedTo(assignedTo)
+                .lastContact(lastContact)
+                .leadSources(leadSources)
+                .build();
+    }
+
+    private static BigDecimal dealValue(CrmEntry entry) {
+        return entry.getDealValue() == null ? BigDecimal.ZERO : entry.getDealValue();
+    }
+
+    private static Map<String, Long> counts(List<CrmEntryRepository.AnalyticsBucket> rows) {
+        return rows.stream().collect(Collectors.toMap(
+                CrmEntryRepository.AnalyticsBucket::getBucket, CrmEntryRepository.AnalyticsBucket::getEntries,
+                Long::sum, TreeMap::new));
+    }
+
+    // Compared by value so 1200 and 1200.00 are the same bucket total
+    private static Map<String, BigDecimal> dealValues(List<CrmEntryRepository.AnalyticsBucket> rows) {
+        return rows.stream().collect(Collectors.toMap(
+                CrmEntryRepository.AnalyticsBucket::getBucket, row -> row.getDealValue().setScale(2),
+                BigDecimal::add, TreeMap::new));
+    }
+
+    /** Stand-in for PostgreSQL's jsonb_extract_path_text with a single array index. */
+    public static class H2Json {
+
+        public static String extractPathText(String json, String path) throws Exception {
+            JsonNode element = MAPPER.readTree(json).path(Integer.parseInt(path));
+            return element.isMissingNode() || element.isNull() ? null : element.asText();
+        }
+    }
+}
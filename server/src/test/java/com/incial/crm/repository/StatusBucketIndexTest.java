@@ -0,0 +1,77 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.entity.CrmStatusBucket;
+import com.incial.crm.entity.Task;
+import com.incial.crm.entity.TaskStatusBucket;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Uses the embedded database's EXPLAIN output to show that the status bucket predicates are
+ * served by their indexes, while the old LOWER(status) form falls back to a table scan.
+ */
+@DataJpaTest
+class StatusBucketIndexTest {
+
+    private static final String[] TASK_STATUSES = {"Not Started", "In Progress", "In Review", "Completed", "Done", "Posted"};
+    private static final String[] CRM_STATUSES = {"lead", "onboarded", "on progress", "Quote Sent", "completed", "drop"};
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CrmEntryRepository crmEntryRepository;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < 300; i++) {
+            entityManager.persist(Task.builder().title("Task " + i).status(TASK_STATUSES[i % TASK_STATUSES.length]).build());
+            entityManager.persist(CrmEntry.builder().company("Company " + i).status(CRM_STATUSES[i % CRM_STATUSES.length]).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void bucketIsDerivedFromStatusOnWrite() {
+        assertThat(taskRepository.findAllCompletedTasks())
+                .hasSize(150)
+                .allSatisfy(task -> assertThat(task.getStatusBucket()).isEqualTo(TaskStatusBucket.COMPLETED));
+        assertThat(taskRepository.findAllActiveTasks()).hasSize(150);
+
+        assertThat(crmEntryRepository.findOnboardedEntries())
+                .hasSize(150)
+                .allSatisfy(entry -> assertThat(entry.getStatusBucket()).isEqualTo(CrmStatusBucket.ONBOARDED));
+        assertThat(crmEntryRepository.findCompletedEntries()).hasSize(50);
+        assertThat(crmEntryRepository.findDroppedEntries()).hasSize(50);
+    }
+
+    @Test
+    void taskBucketPredicateUsesIndex() {
+        assertThat(explain("SELECT * FROM tasks WHERE status_bucket = 'COMPLETED'"))
+                .containsIgnoringCase("IDX_TASK_STATUS_BUCKET");
+        assertThat(explain("SELECT * FROM tasks WHERE LOWER(status) IN ('completed', 'done', 'posted')"))
+                .containsIgnoringCase("tableScan");
+    }
+
+    @Test
+    void crmBucketPredicateUsesIndex() {
+        assertThat(explain("SELECT * FROM crm_entries WHERE status_bucket = 'DROPPED'"))
+                .containsIgnoringCase("IDX_CRM_STATUS_BUCKET");
+        assertThat(explain("SELECT * FROM crm_entries WHERE LOWER(status) = 'drop'"))
+                .containsIgnoringCase("tableScan");
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("EXPLAIN " + sql).getSingleResult());
+    }
+}
@@ -0,0 +1,115 @@
+package com.incial.crm.repository;
+
+import com.incial.crm.entity.Task;
+import com.incial.crm.entity.TaskAssignee;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts that every task list read issues a fixed number of statements no matter how many
+ * tasks it returns, i.e. that touching Task.assignees never triggers a per-row select.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TaskRepositoryFetchPlanTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 40})
+    void findAllLoadsAssigneesInOneStatement(int rows) {
+        seed(rows);
+        assertStatementCount(1, rows, () -> taskRepository.findAll());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 40})
+    void findAllActiveTasksLoadsAssigneesInOneStatement(int rows) {
+        seed(rows);
+        assertStatementCount(1, rows, () -> taskRepository.findAllActiveTasks());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 40})
+    void findAllCompletedTasksLoadsAssigneesInOneStatement(int rows) {
+        seedWithStatus(rows, "Completed");
+        assertStatementCount(1, rows, () -> taskRepository.findAllCompletedTasks());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 40})
+    void findByCompanyIdLoadsAssigneesInOneStatement(int rows) {
+        seed(rows);
+        assertStatementCount(1, rows, () -> taskRepository.findByCompanyId(7L));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 40})
+    void findTasksByUserEmailLoadsAssigneesInOneStatement(int rows) {
+        seed(rows);
+        assertStatementCount(1, rows, () -> taskRepository.findTasksByUserEmail("alice@incial.com", "alice"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 40})
+    void pagedReadBatchLoadsAssignees(int rows) {
+        seed(rows);
+        assertStatementCount(2, rows, () -> taskRepository.findPageByLastUpdated(
+                null, null, null, null, null, null, null, null, PageRequest.ofSize(rows + 1)));
+    }
+
+    private void assertStatementCount(long expected, int rows, Supplier<List<Task>> read) {
+        statistics.clear();
+
+        List<Task> tasks = read.get();
+        tasks.forEach(task -> task.getAssignees().forEach(TaskAssignee::getAssigneeEmail));
+
+        assertThat(tasks).hasSize(rows);
+        assertThat(tasks).allSatisfy(task -> assertThat(task.getAssignees()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+    }
+
+    private void seed(int rows) {
+        seedWithStatus(rows, "In Progress");
+    }
+
+    private void seedWithStatus(int rows, String status) {
+        for (int i = 0; i < rows; i++) {
+            Task task = Task.builder()
+                    .title("Task " + i)
+                    .status(status)
+                    .priority("High")
+                    .companyId(7L)
+                    .dueDate(LocalDate.now().plusDays(i))
+                    .build();
+            task.getAssignees().add(TaskAssignee.builder().task(task).assigneeEmail("alice@incial.com").assigneeName("Alice").build());
+            task.getAssignees().add(TaskAssignee.builder().task(task).assigneeEmail("bob@incial.com").assigneeName("Bob").build());
+            entityManager.persist(task);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
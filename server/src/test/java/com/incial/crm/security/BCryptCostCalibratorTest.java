@@ -0,0 +1,33 @@
+package com.incial.crm.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BCryptCostCalibratorTest {
+
+    @Test
+    void targetBelowOneHashKeepsTheMinimumCost() {
+        assertThat(BCryptCostCalibrator.calibrate(Duration.ZERO, 4, 12)).isEqualTo(4);
+    }
+
+    @Test
+    void generousTargetStopsAtTheMaximumCost() {
+        assertThat(BCryptCostCalibrator.calibrate(Duration.ofHours(1), 4, 6)).isEqualTo(6);
+    }
+
+    @Test
+    void equalBoundsPinTheCost() {
+        assertThat(BCryptCostCalibrator.calibrate(Duration.ofHours(1), 5, 5)).isEqualTo(5);
+    }
+
+    @Test
+    void costGrowsWithTheTargetWithinBounds() {
+        // Cost 4 takes well under 50 ms anywhere, and cost 20 (65536x the work) never fits
+        int cost = BCryptCostCalibrator.calibrate(Duration.ofMillis(50), 4, 20);
+
+        assertThat(cost).isGreaterThan(4).isLessThan(20);
+    }
+}
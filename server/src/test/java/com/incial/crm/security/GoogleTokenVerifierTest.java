@@ -0,0 +1,143 @@
+package com.incial.crm.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoogleTokenVerifierTest {
+
+    private static final String CLIENT_ID = "workhub.apps.googleusercontent.com";
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private KeyPair current;
+    private Path jwks;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        current = rsaKeyPair();
+        jwks = dir.resolve("certs.json");
+        publish(Map.of("k1", current));
+    }
+
+    @Test
+    void verifiesLocallyAfterTheFirstKeyFetch() throws IOException {
+        GoogleTokenVerifier verifier = verifier(30);
+
+        for (int i = 0; i < 5; i++) {
+            GoogleTokenVerifier.GoogleIdentity identity = verifier.verify(token("k1", current, CLIENT_ID, "https://accounts.google.com"))
+                    .orElseThrow();
+            assertThat(identity.email()).isEqualTo("jane@incial.com");
+            assertThat(identity.pictureUrl()).isEqualTo("https://lh3.googleusercontent.com/a/jane");
+        }
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    void rejectsOtherAudiencesIssuersAndSigners() throws Exception {
+        GoogleTokenVerifier verifier = verifier(30);
+
+        assertThat(verifier.verify(token("k1", current, "someone-else.apps.googleusercontent.com", "accounts.google.com"))).isEmpty();
+        assertThat(verifier.verify(token("k1", current, CLIENT_ID, "https://evil.example.com"))).isEmpty();
+        assertThat(verifier.verify(token("k1", rsaKeyPair(), CLIENT_ID, "accounts.google.com"))).isEmpty();
+        assertThat(verifier.verify("not-a-jwt")).isEmpty();
+    }
+
+    @Test
+    void fetchesAgainWhenGoogleRotatesToAnUnknownKey() throws Exception {
+        GoogleTokenVerifier verifier = verifier(0);
+        assertThat(verifier.verify(token("k1", current, CLIENT_ID, "accounts.google.com"))).isPresent();
+
+        KeyPair rotated = rsaKeyPair();
+        publish(Map.of("k1", current, "k2", rotated));
+
+        assertThat(verifier.verify(token("k2", rotated, CLIENT_ID, "accounts.google.com"))).isPresent();
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void reportsUnavailableKeysAsAnIoFailure() throws IOException {
+        Files.delete(jwks);
+        GoogleTokenVerifier verifier = verifier(0);
+
+        assertThatThrownBy(() -> verifier.verify(token("k1", current, CLIENT_ID, "accounts.google.com")))
+                .isInstanceOf(IOException.class);
+    }
+
+    private GoogleTokenVerifier verifier(long minRefreshIntervalSeconds) {
+        JwksKeySource files = new JwksKeySource(jwks.toUri().toString(), 3600, objectMapper);
+        GoogleKeySource counting = () -> {
+            fetches.incrementAndGet();
+            return files.fetch();
+        };
+        return new GoogleTokenVerifier(counting, CLIENT_ID, 300, minRefreshIntervalSeconds, new SimpleMeterRegistry());
+    }
+
+    private void publish(Map<String, KeyPair> keys) throws IOException {
+        List<Map<String, String>> jwkList = keys.entrySet().stream().map(entry -> {
+            RSAPublicKey publicKey = (RSAPublicKey) entry.getValue().getPublic();
+            return Map.of(
+                    "kty", "RSA",
+                    "alg", "RS256",
+                    "use", "sig",
+                    "kid", entry.getKey(),
+                    "n", base64Url(publicKey.getModulus()),
+                    "e", base64Url(publicKey.getPublicExponent()));
+        }).toList();
+        Files.writeString(jwks, objectMapper.writeValueAsString(Map.of("keys", jwkList)));
+    }
+
+    private static String token(String keyId, KeyPair signer, String audience, String issuer) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .header().keyId(keyId).and()
+                .issuer(issuer)
+                .audience().add(audience).and()
+                .subject("1234567890")
+                .claim("email", "jane@incial.com")
+                .claim("email_verified", true)
+                .claim("picture", "https://lh3.googleusercontent.com/a/jane")
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plusSeconds(3600)))
+                .signWith(signer.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+    }
+
+    private static KeyPair rsaKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes[0] == 0 && bytes.length > 1) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,74 @@
+package com.incial.crm.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenCacheTest {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS1tdXN0LWJlLWxvbmctZW5vdWdoLTEyMzQ1Njc4OTA=";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtTokenCache cache = new JwtTokenCache(true, 100, nanos::get, meterRegistry);
+
+    @Test
+    void secondLookupOfTheSameTokenIsAHit() {
+        VerifiedToken verified = token(Duration.ofHours(1));
+
+        assertThat(cache.get("header.payload.signature")).isNull();
+        cache.put("header.payload.signature", verified);
+
+        assertThat(cache.get("header.payload.signature")).isSameAs(verified);
+        assertThat(cache.get("other.payload.signature")).isNull();
+        assertThat(meterRegistry.counter("jwt.cache.requests", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("jwt.cache.requests", "result", "miss").count()).isEqualTo(2);
+    }
+
+    @Test
+    void entryExpiresWithItsToken() {
+        cache.put("header.payload.signature", token(Duration.ofMinutes(10)));
+
+        nanos.addAndGet(Duration.ofMinutes(9).toNanos());
+        assertThat(cache.get("header.payload.signature")).isNotNull();
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertThat(cache.get("header.payload.signature")).isNull();
+    }
+
+    @Test
+    void tokenWithoutExpiryIsRejectedAndNeverCached() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtUtil jwtUtil = new JwtUtil(new JwtTokenCache(true, 100, nanos::get, registry), registry);
+        ReflectionTestUtils.setField(jwtUtil, "secretString", SECRET);
+        jwtUtil.init();
+        String noExpiry = Jwts.builder()
+                .subject("jane.doe@incial.com")
+                .claim("role", "ROLE_EMPLOYEE")
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+
+        assertThat(jwtUtil.verify(noExpiry)).isEmpty();
+        assertThat(jwtUtil.verify(noExpiry)).isEmpty();
+        assertThat(registry.counter("jwt.cache.requests", "result", "hit").count()).isZero();
+
+        // A token we issued verifies once and is then served from the cache
+        String issued = jwtUtil.generateToken("jane.doe@incial.com", "ROLE_EMPLOYEE");
+        assertThat(jwtUtil.verify(issued)).map(VerifiedToken::email).contains("jane.doe@incial.com");
+        assertThat(jwtUtil.verify(issued)).isPresent();
+        assertThat(registry.counter("jwt.cache.requests", "result", "hit").count()).isEqualTo(1);
+    }
+
+    private static VerifiedToken token(Duration validFor) {
+        return new VerifiedToken("jane.doe@incial.com", "ROLE_EMPLOYEE", Instant.now().plus(validFor));
+    }
+}
@@ -0,0 +1,78 @@
+package com.incial.crm.security;
+
+import com.incial.crm.exception.TooManyRequestsException;
+import com.incial.crm.security.LoginThrottle.Endpoint;
+import com.incial.crm.security.LoginThrottle.Rates;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private final AtomicLong nanos = new AtomicLong(-Duration.ofHours(1).toNanos());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoginThrottle throttle = new LoginThrottle(true, 1000, nanos::get, meterRegistry, Map.of(
+            Endpoint.LOGIN, new Rates(10, 3),
+            Endpoint.FORGOT_PASSWORD, new Rates(5, 2),
+            Endpoint.OTP, new Rates(10, 5)));
+
+    @Test
+    void emailBucketAllowsABurstThenRefillsEvenly() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire(Endpoint.LOGIN, "10.0.0." + i, "jane@incial.com");
+        }
+        // Same account from another address, different case: still the same bucket
+        assertThatThrownBy(() -> throttle.acquire(Endpoint.LOGIN, "10.0.0.9", " Jane@Incial.com"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(20L);
+
+        nanos.addAndGet(Duration.ofSeconds(20).toNanos());
+        throttle.acquire(Endpoint.LOGIN, "10.0.0.9", "jane@incial.com");
+        assertThatThrownBy(() -> throttle.acquire(Endpoint.LOGIN, "10.0.0.9", "jane@incial.com"))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        assertThat(meterRegistry.counter("auth.throttled", "endpoint", "login", "key", "email").count()).isEqualTo(2);
+    }
+
+    @Test
+    void ipBucketLimitsSprayingAcrossAccounts() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire(Endpoint.FORGOT_PASSWORD, "203.0.113.7", "user" + i + "@incial.com");
+        }
+        assertThatThrownBy(() -> throttle.acquire(Endpoint.FORGOT_PASSWORD, "203.0.113.7", "other@incial.com"))
+                .isInstanceOf(TooManyRequestsException.class);
+        // Other addresses and other endpoints have their own buckets
+        throttle.acquire(Endpoint.FORGOT_PASSWORD, "203.0.113.8", "other@incial.com");
+        throttle.acquire(Endpoint.LOGIN, "203.0.113.7", "other@incial.com");
+    }
+
+    @Test
+    void idleBucketsComeBackFull() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire(Endpoint.OTP, "10.0.0.1", "jane@incial.com");
+        }
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire(Endpoint.OTP, "10.0.0.1", "jane@incial.com");
+        }
+        assertThatThrownBy(() -> throttle.acquire(Endpoint.OTP, "10.0.0.1", "jane@incial.com"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void disabledThrottleLetsEverythingThrough() {
+        LoginThrottle disabled = new LoginThrottle(false, 1000, nanos::get, meterRegistry, Map.of(
+                Endpoint.LOGIN, new Rates(1, 1),
+                Endpoint.FORGOT_PASSWORD, new Rates(1, 1),
+                Endpoint.OTP, new Rates(1, 1)));
+        for (int i = 0; i < 10; i++) {
+            disabled.acquire(Endpoint.LOGIN, "10.0.0.1", "jane@incial.com");
+        }
+    }
+}
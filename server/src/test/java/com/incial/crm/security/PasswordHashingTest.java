@@ -0,0 +1,67 @@
+package com.incial.crm.security;
+
+import com.incial.crm.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class PasswordHashingTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHashing passwordHashing = new PasswordHashing(1, 1, meterRegistry);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        passwordHashing.shutdown();
+    }
+
+    @Test
+    void fullQueueIsRejectedImmediatelyAndAnsweredWith503() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = passwordHashing.submit(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            return "running";
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = passwordHashing.submit(() -> "queued");
+        assertThat(meterRegistry.get("password.hashing.queued").gauge().value()).isEqualTo(1);
+
+        RejectedExecutionException rejected = catchThrowableOfType(
+                () -> passwordHashing.submit(() -> "rejected"), RejectedExecutionException.class);
+        assertThat(rejected).isNotNull();
+        assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        ResponseEntity<Map<String, String>> response = new GlobalExceptionHandler().handleRejectedExecutionException(rejected);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody()).containsEntry("error", "Service busy");
+
+        // Work already accepted still completes once the pool frees up
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+        assertThat(passwordHashing.submit(() -> "after").get(5, TimeUnit.SECONDS)).isEqualTo("after");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.ChangeSetDto;
+import com.incial.crm.dto.MeetingDto;
+import com.incial.crm.entity.Meeting;
+import com.incial.crm.entity.Tombstone;
+import com.incial.crm.repository.MeetingRepository;
+import com.incial.crm.repository.TombstoneRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({MeetingService.class, ChangeFeedService.class})
+@TestPropertySource(properties = "sync.commit-grace-seconds=0")
+class ChangeFeedServiceTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @MockBean
+    private LiveEventService liveEventService;
+
+    @Test
+    void pagesThroughRowsSharingATimestampAndReportsDeletes() {
+        persist("Kickoff");
+        Long second = persist("Review");
+        persist("Retro");
+        // Same timestamp on every row: only the id half of the cursor keeps them apart
+        entityManager.createQuery("UPDATE Meeting m SET m.lastUpdatedAt = :at")
+                .setParameter("at", LocalDateTime.now().minusMinutes(1).withNano(0))
+                .executeUpdate();
+        entityManager.clear();
+
+        ChangeSetDto<MeetingDto> page1 = meetingService.getChangesSince(null, 2);
+        assertThat(page1.getUpserts()).hasSize(2);
+        assertThat(page1.isHasMore()).isTrue();
+
+        ChangeSetDto<MeetingDto> page2 = meetingService.getChangesSince(page1.getCursor(), 2);
+        assertThat(page2.getUpserts()).extracting(MeetingDto::getTitle).containsExactly("Retro");
+        assertThat(page2.isHasMore()).isFalse();
+
+        ChangeSetDto<MeetingDto> idle = meetingService.getChangesSince(page2.getCursor(), 2);
+        assertThat(idle.getUpserts()).isEmpty();
+        assertThat(idle.getDeletedIds()).isEmpty();
+
+        meetingService.deleteMeeting(second);
+        entityManager.flush();
+        ChangeSetDto<MeetingDto> afterDelete = meetingService.getChangesSince(idle.getCursor(), 2);
+        assertThat(afterDelete.getDeletedIds()).containsExactly(second);
+        assertThat(afterDelete.getUpserts()).isEmpty();
+    }
+
+    @Test
+    void rowsInsideTheCommitGraceAreDeliveredAgainUntilItPasses() {
+        // The shared service runs with no grace; this one holds back the last minute
+        ChangeFeedService feed = new ChangeFeedService(tombstoneRepository, 60, 30);
+        Long settled = persist("Settled");
+        Long recent = persist("Recent");
+        touch(settled, LocalDateTime.now().minusMinutes(5));
+        touch(recent, LocalDateTime.now().minusSeconds(5));
+
+        ChangeSetDto<String> first = changes(feed, null);
+        assertThat(first.getUpserts()).containsExactly("Settled", "Recent");
+
+        // A slower transaction could still commit a row stamped just before Recent, so the cursor stops at Settled
+        ChangeSetDto<String> second = changes(feed, first.getCursor());
+        assertThat(second.getUpserts()).containsExactly("Recent");
+
+        touch(recent, LocalDateTime.now().minusMinutes(2));
+        ChangeSetDto<String> third = changes(feed, second.getCursor());
+        assertThat(third.getUpserts()).containsExactly("Recent");
+        assertThat(changes(feed, third.getCursor()).getUpserts()).isEmpty();
+    }
+
+    @Test
+    void cursorOlderThanTombstoneRetentionRequiresReset() {
+        persist("Kickoff");
+        LocalDateTime issued = LocalDateTime.now().minusDays(31);
+        String stale = new ChangeFeedService.SyncCursor(issued, 0L, issued, 0L, issued).encode();
+
+        ChangeSetDto<MeetingDto> changes = meetingService.getChangesSince(stale, null);
+
+        assertThat(changes.isResetRequired()).isTrue();
+        assertThat(changes.getUpserts()).isEmpty();
+        assertThat(changes.getDeletedIds()).isEmpty();
+        // The fresh cursor picks up from now without another reset
+        assertThat(meetingService.getChangesSince(changes.getCursor(), null).isResetRequired()).isFalse();
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        assertThatThrownBy(() -> meetingService.getChangesSince("not-a-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ChangeSetDto<String> changes(ChangeFeedService feed, String since) {
+        return feed.changesSince(Tombstone.TYPE_MEETING, since, null,
+                meetingRepository::findChangedSince, Meeting::getLastUpdatedAt, Meeting::getId, Meeting::getTitle);
+    }
+
+    private void touch(Long id, LocalDateTime at) {
+        entityManager.createQuery("UPDATE Meeting m SET m.lastUpdatedAt = :at WHERE m.id = :id")
+                .setParameter("at", at)
+                .setParameter("id", id)
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    private Long persist(String title) {
+        Meeting meeting = Meeting.builder().title(title).dateTime(LocalDateTime.now()).build();
+        entityManager.persist(meeting);
+        entityManager.flush();
+        return meeting.getId();
+    }
+}
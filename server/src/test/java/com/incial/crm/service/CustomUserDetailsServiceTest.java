@@ -0,0 +1,132 @@
+package com.incial.crm.service;
+
+import com.incial.crm.config.SecurityConfig;
+import com.incial.crm.entity.User;
+import com.incial.crm.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Rehash-on-login: DaoAuthenticationProvider asks the encoder whether a stored hash is outdated
+ * and, after a successful login, hands the fresh hash to {@link CustomUserDetailsService#updatePassword}.
+ */
+@DataJpaTest
+@Import({CustomUserDetailsService.class, UserDirectory.class, CustomUserDetailsServiceTest.Metrics.class})
+class CustomUserDetailsServiceTest {
+
+    // The encoder exactly as SecurityConfig builds it, pinned to cost 5 instead of calibrating
+    private static final PasswordEncoder ENCODER = new SecurityConfig(null).passwordEncoder(5, 0, 4, 5);
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private DaoAuthenticationProvider provider;
+    private double rehashesBefore;
+
+    @BeforeEach
+    void setUp() {
+        // The registry is shared by every test in the cached context
+        rehashesBefore = meterRegistry.get("password.rehash").counter().count();
+        provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(ENCODER);
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+    }
+
+    @Test
+    void legacyUnprefixedHashIsUpgradedOnLogin() {
+        saveUser("jane@incial.com", new BCryptPasswordEncoder(4).encode("secret"));
+
+        login("jane@incial.com", "secret");
+
+        String upgraded = storedHash("jane@incial.com");
+        assertThat(upgraded).startsWith("{bcrypt}$2a$05$");
+        assertThat(ENCODER.matches("secret", upgraded)).isTrue();
+        assertThat(rehashCount()).isEqualTo(1);
+
+        // Up to date now, so the next login leaves it alone
+        login("jane@incial.com", "secret");
+        assertThat(storedHash("jane@incial.com")).isEqualTo(upgraded);
+        assertThat(rehashCount()).isEqualTo(1);
+    }
+
+    @Test
+    void weakerCostIsUpgradedOnLogin() {
+        saveUser("arjun@incial.com", "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret"));
+
+        login("arjun@incial.com", "secret");
+
+        assertThat(storedHash("arjun@incial.com")).startsWith("{bcrypt}$2a$05$");
+        assertThat(rehashCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedLoginDoesNotTouchTheHash() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        saveUser("jane@incial.com", legacy);
+
+        assertThatThrownBy(() -> login("jane@incial.com", "wrong"))
+                .isInstanceOf(BadCredentialsException.class);
+
+        assertThat(storedHash("jane@incial.com")).isEqualTo(legacy);
+        assertThat(rehashCount()).isZero();
+    }
+
+    private void saveUser(String email, String passwordHash) {
+        userRepository.save(User.builder()
+                .name(email)
+                .email(email)
+                .passwordHash(passwordHash)
+                .role("ROLE_EMPLOYEE")
+                .build());
+        entityManager.flush();
+    }
+
+    private void login(String email, String password) {
+        provider.authenticate(new UsernamePasswordAuthenticationToken(email, password));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private String storedHash(String email) {
+        return userRepository.findByEmail(email).orElseThrow().getPasswordHash();
+    }
+
+    private double rehashCount() {
+        return meterRegistry.get("password.rehash").counter().count() - rehashesBefore;
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
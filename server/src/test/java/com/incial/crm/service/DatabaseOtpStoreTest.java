@@ -0,0 +1,30 @@
+package com.incial.crm.service;
+
+import com.incial.crm.repository.OtpRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Chunks of 2 so purgeRemovesOnlyExpiredCodes needs several deletes
+@DataJpaTest(properties = {"otp.max-attempts=" + OtpStoreContract.MAX_ATTEMPTS, "otp.purge-chunk-size=2"})
+@Import(DatabaseOtpStore.class)
+// The contract's test methods are inherited, so no test transaction would reach them anyway;
+// each store call runs in its own transaction through the bean's proxy, as in production
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DatabaseOtpStoreTest extends OtpStoreContract {
+
+    @Autowired
+    private DatabaseOtpStore databaseOtpStore;
+
+    @Autowired
+    private OtpRepository otpRepository;
+
+    // Rows are committed, so start every test from an empty table
+    @Override
+    OtpStore newStore() {
+        otpRepository.deleteAll();
+        return databaseOtpStore;
+    }
+}
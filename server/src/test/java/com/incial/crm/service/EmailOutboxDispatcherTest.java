@@ -0,0 +1,161 @@
+package com.incial.crm.service;
+
+import com.incial.crm.entity.EmailOutbox;
+import com.incial.crm.entity.Task;
+import com.incial.crm.repository.EmailOutboxRepository;
+import com.incial.crm.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxDispatcherTest {
+
+    private final EmailOutboxRepository outboxRepository = mock(EmailOutboxRepository.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final FakeJavaMailSender mailSender = new FakeJavaMailSender();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        EmailService emailService = new EmailService(mailSender, meterRegistry, new EmailTemplates());
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@incial.com");
+        dispatcher = new EmailOutboxDispatcher(outboxRepository, taskRepository, emailService, 1, 10, 3, 30,
+                60, 3, meterRegistry);
+
+        when(outboxRepository.claim(eq(1L), any(), any())).thenReturn(1);
+        when(taskRepository.findById(10L)).thenReturn(Optional.of(Task.builder().id(10L).title("Launch").build()));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void marksEntrySentAfterDelivery() {
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(entry(1)));
+
+        dispatcher.dispatch(1L);
+
+        assertThat(mailSender.getSent()).hasSize(1);
+        verify(outboxRepository).markSent(eq(1L), any());
+        assertThat(meterRegistry.get("email.send")
+                .tag("type", "task_assignment").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void reschedulesWithBackoffWhenSmtpFails() {
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(entry(1)));
+        mailSender.failNext(1);
+
+        dispatcher.dispatch(1L);
+
+        assertThat(mailSender.getSent()).isEmpty();
+        verify(outboxRepository).markAttemptFailed(eq(1L), eq(EmailOutbox.STATUS_PENDING), any(LocalDateTime.class), anyString());
+        verify(outboxRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(entry(3)));
+        mailSender.failNext(1);
+
+        dispatcher.dispatch(1L);
+
+        verify(outboxRepository).markAttemptFailed(eq(1L), eq(EmailOutbox.STATUS_FAILED), any(LocalDateTime.class), anyString());
+    }
+
+    @Test
+    void skipsEntriesClaimedElsewhere() {
+        when(outboxRepository.claim(eq(1L), any(), any())).thenReturn(0);
+
+        dispatcher.dispatch(1L);
+
+        verify(outboxRepository, never()).findById(any());
+        assertThat(mailSender.getSent()).isEmpty();
+    }
+
+    @Test
+    void deliversBatchEntriesAsOneEmail() {
+        EmailOutbox batch = entry(1);
+        batch.setType(EmailOutbox.TYPE_TASK_ASSIGNMENT_BATCH);
+        batch.setTaskId(null);
+        batch.setTaskIds(List.of(10L, 11L));
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(batch));
+        when(taskRepository.findAllById(List.of(10L, 11L))).thenReturn(List.of(
+                Task.builder().id(11L).title("Review").build(),
+                Task.builder().id(10L).title("Launch").build()));
+
+        dispatcher.dispatch(1L);
+
+        assertThat(mailSender.getSent()).hasSize(1);
+        verify(outboxRepository).markSent(eq(1L), any());
+    }
+
+    @Test
+    void mergesPendingAssignmentsForTheRecipientIntoOneDigestUpToTheCap() {
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(entry(1)));
+        EmailOutbox second = entry(0);
+        second.setId(2L);
+        second.setTaskId(11L);
+        second.setAssignedBy("priya@incial.com");
+        EmailOutbox overflow = entry(0);
+        overflow.setId(3L);
+        overflow.setType(EmailOutbox.TYPE_TASK_ASSIGNMENT_BATCH);
+        overflow.setTaskId(null);
+        overflow.setTaskIds(List.of(12L, 13L));
+        when(outboxRepository.findDigestCandidates(eq("alice@incial.com"), eq(1L), any()))
+                .thenReturn(List.of(second, overflow));
+        when(outboxRepository.mergeInto(List.of(2L), 1L)).thenReturn(1);
+        when(outboxRepository.findByMergedInto(1L)).thenReturn(List.of()).thenReturn(List.of(second));
+        when(taskRepository.findAllById(List.of(10L, 11L))).thenReturn(List.of(
+                Task.builder().id(10L).title("Launch").build(),
+                Task.builder().id(11L).title("Review").build()));
+
+        dispatcher.dispatch(1L);
+
+        // Adding the batch entry would make four tasks (10, 11 + 12, 13), over the cap of 3, so it is left for its own digest
+        verify(outboxRepository).mergeInto(List.of(2L), 1L);
+        assertThat(mailSender.getSent()).hasSize(1);
+        verify(outboxRepository).markSent(eq(1L), any());
+        assertThat(meterRegistry.get("email.send")
+                .tag("type", "task_assignment_batch").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("email.coalesced").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void backoffDoublesAndIsCapped() {
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(dispatcher.backoff(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(dispatcher.backoff(3)).isEqualTo(Duration.ofSeconds(120));
+        assertThat(dispatcher.backoff(30)).isEqualTo(Duration.ofHours(1));
+    }
+
+    private EmailOutbox entry(int attempts) {
+        return EmailOutbox.builder()
+                .id(1L)
+                .type(EmailOutbox.TYPE_TASK_ASSIGNMENT)
+                .recipient("alice@incial.com")
+                .taskId(10L)
+                .assignedBy("admin@incial.com")
+                .attempts(attempts)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.incial.crm.service;
+
+import com.incial.crm.entity.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailTemplatesTest {
+
+    // otp_hi.txt lives in src/test/resources; there is no Hindi HTML variant
+    private final EmailTemplates emailTemplates = new EmailTemplates();
+
+    @Test
+    void escapesValuesInHtmlButNotInPlainText() {
+        EmailTemplates.Rendered rendered = emailTemplates.render(EmailTemplates.Name.OTP, null, "<b>123456</b>");
+
+        assertThat(rendered.html()).contains("&lt;b&gt;123456&lt;/b&gt;").doesNotContain("{{");
+        assertThat(rendered.text()).contains("<b>123456</b>").doesNotContain("<div");
+    }
+
+    @Test
+    void fallsBackFromCountryToLanguageToDefault() {
+        String hindi = emailTemplates.render(EmailTemplates.Name.OTP, EmailTemplates.Format.TEXT,
+                Locale.forLanguageTag("hi-IN"), "123456");
+        String french = emailTemplates.render(EmailTemplates.Name.OTP, EmailTemplates.Format.TEXT,
+                Locale.FRENCH, "123456");
+        String hindiHtml = emailTemplates.render(EmailTemplates.Name.OTP, EmailTemplates.Format.HTML,
+                Locale.forLanguageTag("hi"), "123456");
+
+        assertThat(hindi).startsWith("पासवर्ड रीसेट OTP: 123456");
+        assertThat(french).startsWith("Password Reset Request");
+        assertThat(hindiHtml).contains("Password Reset Request");
+    }
+
+    @Test
+    void batchEmailRendersOneRowPerTaskInBothParts() {
+        EmailService emailService = new EmailService(null, null, emailTemplates);
+        List<Task> tasks = List.of(
+                Task.builder().title("Hero & banner").priority("High").dueDate(LocalDate.of(2024, 3, 29)).build(),
+                Task.builder().title("Carousel").build());
+        EmailTemplates.Fragment rows = (out, format, locale) -> tasks.forEach(task ->
+                emailTemplates.renderTo(out, EmailTemplates.Name.TASK_ASSIGNMENT_BATCH_ROW, format, locale,
+                        task.getTitle(), "High", "#dc2626", "Mar 29, 2024", "Not Started"));
+
+        EmailTemplates.Rendered rendered = emailTemplates.render(EmailTemplates.Name.TASK_ASSIGNMENT_BATCH, null,
+                tasks.size(), "Priya", rows, "jane@incial.com");
+
+        assertThat(rendered.html()).contains("Hero &amp; banner", "Carousel", "2 New Tasks Assigned");
+        assertThat(rendered.text()).contains("- Hero & banner", "- Carousel", "2 New Tasks Assigned");
+        // The per-thread buffer is released between renders
+        assertThat(emailService.renderTaskAssignment(tasks.get(0), "Priya", "jane@incial.com").html())
+                .startsWith("<!DOCTYPE html>")
+                .contains("Hero &amp; banner", "#fee2e2");
+    }
+
+    @Test
+    void rejectsUnknownPlaceholdersAndWrongArity() {
+        assertThatThrownBy(() -> EmailTemplate.compile("Hi {{nmae}}", List.of("name"),
+                EmailTemplates.Format.TEXT, "greeting.txt"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("nmae");
+        assertThatThrownBy(() -> emailTemplates.render(EmailTemplates.Name.OTP, null, "123456", "extra"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
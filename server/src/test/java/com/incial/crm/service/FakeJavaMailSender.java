@@ -0,0 +1,62 @@
+package com.incial.crm.service;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory JavaMailSender that records messages instead of talking to SMTP and can be told
+ * to fail the next N sends.
+ */
+class FakeJavaMailSender implements JavaMailSender {
+
+    private final Session session = Session.getInstance(new Properties());
+    private final List<MimeMessage> sent = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresRemaining = new AtomicInteger();
+
+    List<MimeMessage> getSent() {
+        return sent;
+    }
+
+    void failNext(int count) {
+        failuresRemaining.set(count);
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        return new MimeMessage(session);
+    }
+
+    @Override
+    public MimeMessage createMimeMessage(InputStream contentStream) throws MailException {
+        try {
+            return new MimeMessage(session, contentStream);
+        } catch (Exception e) {
+            throw new MailSendException("Could not parse message", e);
+        }
+    }
+
+    @Override
+    public void send(MimeMessage... mimeMessages) throws MailException {
+        for (MimeMessage message : mimeMessages) {
+            if (failuresRemaining.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                throw new MailSendException("Simulated SMTP failure");
+            }
+            sent.add(message);
+        }
+    }
+
+    @Override
+    public void send(SimpleMailMessage... simpleMessages) throws MailException {
+        throw new UnsupportedOperationException("Only MIME messages are used by EmailService");
+    }
+}
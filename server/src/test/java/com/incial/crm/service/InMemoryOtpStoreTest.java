@@ -0,0 +1,28 @@
+package com.incial.crm.service;
+
+import com.incial.crm.service.OtpStore.Result;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryOtpStoreTest extends OtpStoreContract {
+
+    @Override
+    OtpStore newStore() {
+        return new InMemoryOtpStore(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void wheelExpiresCodesMoreThanOneTurnAhead() {
+        InMemoryOtpStore store = new InMemoryOtpStore(MAX_ATTEMPTS);
+        LocalDateTime now = LocalDateTime.of(2026, 3, 14, 9, 30);
+        // Lands in the same slot as now + 6s, one turn of the wheel later
+        store.put("jane@incial.com", "123456", now.plusSeconds(1030));
+
+        assertThat(store.purgeExpired(now.plusSeconds(10))).isZero();
+        assertThat(store.purgeExpired(now.plusSeconds(1031))).isEqualTo(1);
+        assertThat(store.verify("jane@incial.com", "123456", now)).isEqualTo(Result.EXPIRED);
+    }
+}
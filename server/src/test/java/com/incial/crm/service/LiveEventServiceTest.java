@@ -0,0 +1,266 @@
+package com.incial.crm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.incial.crm.dto.ChangeEventDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the fan-out with emitters that record frames instead of writing to a socket, and that
+ * can be made to block or fail the way a slow or vanished client does.
+ */
+class LiveEventServiceTest {
+
+    private static final long WAIT_SECONDS = 5;
+
+    private LiveEventService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void clientThatFallsBehindGetsOneResyncInsteadOfItsBacklog() throws Exception {
+        RecordingEmitter slow = new RecordingEmitter();
+        slow.block();
+        service = service(10, 2, 1, 60_000, queue(slow));
+
+        service.subscribe("jane@incial.com");
+        assertThat(slow.sending.await(WAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+        // The worker is stuck on the ready frame; five events overflow a queue of two
+        for (long id = 1; id <= 5; id++) {
+            service.broadcast(event(id));
+        }
+        slow.release();
+
+        assertThat(slow.next()).contains("event:ready");
+        assertThat(slow.next()).contains("event:resync");
+        assertThat(slow.frames.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void subscriptionsPastTheCapAreRejected() {
+        service = service(2, 8, 1, 60_000, RecordingEmitter::new);
+
+        assertThat(service.subscribe("a@incial.com")).isPresent();
+        assertThat(service.subscribe("b@incial.com")).isPresent();
+        assertThat(service.subscribe("c@incial.com")).isEmpty();
+        assertThat(service.getSubscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentSubscribesNeverOvershootTheCap() throws Exception {
+        service = service(100, 8, 1, 60_000, RecordingEmitter::new);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(callers.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 50; i++) {
+                        service.subscribe("user@incial.com").ifPresent(emitter -> accepted.incrementAndGet());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(WAIT_SECONDS, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(accepted).hasValue(100);
+        assertThat(service.getSubscriberCount()).isEqualTo(100);
+    }
+
+    @Test
+    void failedSendFreesTheSlot() throws Exception {
+        RecordingEmitter gone = new RecordingEmitter();
+        gone.fail = true;
+        service = service(1, 8, 1, 60_000, queue(gone, new RecordingEmitter()));
+
+        assertThat(service.subscribe("a@incial.com")).isPresent();
+        assertThat(gone.sending.await(WAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(awaitSubscribe("b@incial.com")).isPresent();
+    }
+
+    @Test
+    void heartbeatReachesEverySubscriber() throws Exception {
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        service = service(10, 8, 2, 60_000, queue(first, second));
+        service.subscribe("a@incial.com");
+        service.subscribe("b@incial.com");
+
+        service.heartbeat();
+
+        for (RecordingEmitter emitter : List.of(first, second)) {
+            assertThat(emitter.next()).contains("event:ready");
+            assertThat(emitter.next()).isEqualTo(":hb\n\n");
+        }
+    }
+
+    @Test
+    void changeIsPublishedOnlyAfterCommit() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        service = service(10, 8, 1, 60_000, queue(emitter));
+        service.subscribe("a@incial.com");
+        assertThat(emitter.next()).contains("event:ready");
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.publishAfterCommit("task", 7L, LiveEventService.OP_UPDATED, null);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(emitter.frames.poll(200, TimeUnit.MILLISECONDS)).isNull();
+
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+
+        assertThat(emitter.next()).contains("event:change").contains("\"id\":7").contains("\"op\":\"UPDATED\"");
+    }
+
+    @Test
+    void rolledBackChangeIsNeverPublished() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        service = service(10, 8, 1, 60_000, queue(emitter));
+        service.subscribe("a@incial.com");
+        assertThat(emitter.next()).contains("event:ready");
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.publishAfterCommit("task", 7L, LiveEventService.OP_DELETED, null);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(emitter.frames.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void stalledClientIsDroppedAndDoesNotPinTheWorkers() throws Exception {
+        RecordingEmitter stalled = new RecordingEmitter();
+        stalled.block();
+        RecordingEmitter healthy = new RecordingEmitter();
+        service = service(10, 8, 1, 100, queue(stalled, healthy));
+
+        service.subscribe("slow@incial.com");
+        assertThat(stalled.sending.await(WAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        // The only worker is blocked, so this subscriber's ready frame waits behind it
+        service.subscribe("fast@incial.com");
+        assertThat(healthy.frames.poll(200, TimeUnit.MILLISECONDS)).isNull();
+
+        service.evictStalledSubscribers();
+
+        assertThat(healthy.next()).contains("event:ready");
+        assertThat(service.getSubscriberCount()).isEqualTo(1);
+
+        // Once the write gives up the stalled emitter is closed and gets nothing more
+        service.broadcast(event(1));
+        assertThat(healthy.next()).contains("event:change");
+        stalled.release();
+        assertThat(stalled.completedWithError.await(WAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        assertThat(stalled.next()).contains("event:ready");
+        assertThat(stalled.frames.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private static LiveEventService service(int maxSubscribers, int queueCapacity, int fanoutWorkers,
+                                            long sendTimeoutMs, Supplier<SseEmitter> emitters) {
+        return new LiveEventService(new ObjectMapper(), maxSubscribers, queueCapacity, fanoutWorkers,
+                sendTimeoutMs, emitters);
+    }
+
+    private static Supplier<SseEmitter> queue(RecordingEmitter... emitters) {
+        BlockingQueue<RecordingEmitter> pending = new LinkedBlockingQueue<>(List.of(emitters));
+        return pending::remove;
+    }
+
+    private static ChangeEventDto event(long id) {
+        return ChangeEventDto.builder().entity("task").id(id).op(LiveEventService.OP_UPDATED).version(id).build();
+    }
+
+    private Optional<SseEmitter> awaitSubscribe(String email) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT_SECONDS);
+        Optional<SseEmitter> emitter = service.subscribe(email);
+        while (emitter.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            emitter = service.subscribe(email);
+        }
+        return emitter;
+    }
+
+    /** Records each frame as the text that would go on the wire. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> frames = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completedWithError = new CountDownLatch(1);
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+        private volatile boolean fail;
+
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        String next() throws InterruptedException {
+            String frame = frames.poll(WAIT_SECONDS, TimeUnit.SECONDS);
+            assertThat(frame).as("frame within %d s", WAIT_SECONDS).isNotNull();
+            return frame;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            sending.countDown();
+            if (fail) {
+                throw new IOException("Broken pipe");
+            }
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            frames.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            completedWithError.countDown();
+            super.completeWithError(ex);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.incial.crm.service;
+
+import com.incial.crm.service.OtpStore.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Behavior every {@link OtpStore} must share; each backend's test supplies the store. */
+abstract class OtpStoreContract {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 3, 14, 9, 30);
+    private OtpStore store;
+
+    /** A fresh, empty store allowing {@link #MAX_ATTEMPTS} attempts per code. */
+    abstract OtpStore newStore();
+
+    @BeforeEach
+    void setUpStore() {
+        store = newStore();
+    }
+
+    @Test
+    void correctCodeIsAcceptedOnce() {
+        store.put("jane@incial.com", "123456", now.plusMinutes(10));
+
+        assertThat(store.verify("jane@incial.com", "123456", now)).isEqualTo(Result.VALID);
+        assertThat(store.verify("jane@incial.com", "123456", now)).isEqualTo(Result.EXPIRED);
+    }
+
+    @Test
+    void everyAttemptCountsAndTheCodeLocks() {
+        store.put("jane@incial.com", "123456", now.plusMinutes(10));
+
+        assertThat(store.verify("jane@incial.com", "000000", now)).isEqualTo(Result.INVALID);
+        assertThat(store.verify("jane@incial.com", "12345", now)).isEqualTo(Result.INVALID);
+        assertThat(store.verify("jane@incial.com", null, now)).isEqualTo(Result.INVALID);
+        // The right code no longer helps once the attempts are spent
+        assertThat(store.verify("jane@incial.com", "123456", now)).isEqualTo(Result.LOCKED);
+    }
+
+    @Test
+    void newCodeReplacesTheOldOneAndResetsAttempts() {
+        store.put("jane@incial.com", "111111", now.plusMinutes(10));
+        store.verify("jane@incial.com", "000000", now);
+        store.verify("jane@incial.com", "000000", now);
+        store.put("jane@incial.com", "222222", now.plusMinutes(10));
+
+        assertThat(store.verify("jane@incial.com", "111111", now)).isEqualTo(Result.INVALID);
+        assertThat(store.verify("jane@incial.com", "222222", now)).isEqualTo(Result.VALID);
+    }
+
+    @Test
+    void expiredAndUnknownCodesAreRejected() {
+        store.put("jane@incial.com", "123456", now.plusMinutes(10));
+
+        assertThat(store.verify("jane@incial.com", "123456", now.plusMinutes(10))).isEqualTo(Result.EXPIRED);
+        assertThat(store.verify("arjun@incial.com", "123456", now)).isEqualTo(Result.EXPIRED);
+    }
+
+    @Test
+    void codesAreKeptPerEmail() {
+        store.put("jane@incial.com", "111111", now.plusMinutes(10));
+        store.put("arjun@incial.com", "222222", now.plusMinutes(10));
+
+        assertThat(store.verify("jane@incial.com", "222222", now)).isEqualTo(Result.INVALID);
+        assertThat(store.verify("arjun@incial.com", "222222", now)).isEqualTo(Result.VALID);
+        assertThat(store.verify("jane@incial.com", "111111", now)).isEqualTo(Result.VALID);
+    }
+
+    @Test
+    void purgeRemovesOnlyExpiredCodes() {
+        store.put("a@incial.com", "111111", now.plusMinutes(1));
+        store.put("b@incial.com", "222222", now.plusMinutes(2));
+        store.put("c@incial.com", "333333", now.plusMinutes(3));
+        store.put("d@incial.com", "444444", now.plusMinutes(10));
+        store.put("e@incial.com", "555555", now.plusMinutes(10));
+
+        assertThat(store.purgeExpired(now.plusMinutes(5))).isEqualTo(3);
+        assertThat(store.purgeExpired(now.plusMinutes(5))).isZero();
+        assertThat(store.verify("d@incial.com", "444444", now.plusMinutes(5))).isEqualTo(Result.VALID);
+        assertThat(store.verify("e@incial.com", "555555", now.plusMinutes(5))).isEqualTo(Result.VALID);
+    }
+}
@@ -0,0 +1,107 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.SearchHitDto;
+import com.incial.crm.dto.SearchResultDto;
+import com.incial.crm.entity.CrmEntry;
+import com.incial.crm.entity.Meeting;
+import com.incial.crm.entity.Task;
+import com.incial.crm.repository.SearchRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exercises the H2 (LIKE) fallback; the PostgreSQL full-text path needs db/migrations/003_search.sql.
+ */
+@DataJpaTest
+@Import({SearchService.class, SearchRepository.class})
+class SearchServiceTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SearchService searchService;
+
+    @BeforeEach
+    void seed() {
+        entityManager.persist(CrmEntry.builder().company("Acme Studios").contactName("Jane Roe")
+                .notes("Wants a rebrand <b>before</b> the launch").status("lead").build());
+        entityManager.persist(CrmEntry.builder().company("Globex").contactName("Acme referral").status("lead").build());
+        entityManager.persist(Task.builder().title("Acme logo refresh").description("Three concepts").status("Not Started").build());
+        entityManager.persist(Task.builder().title("Quarterly report").description("Include the acme numbers").status("Not Started").build());
+        entityManager.persist(Meeting.builder().title("Kickoff").notes("Agenda for acme").dateTime(LocalDateTime.now()).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void fallbackReturnsTypedHitsRankedByTitleMatch() {
+        SearchResultDto result = searchService.search("acme", null, 0, 20);
+
+        assertThat(result.isFullText()).isFalse();
+        assertThat(result.getHits()).hasSize(5);
+        assertThat(result.getHits()).extracting(SearchHitDto::getType)
+                .containsOnly(SearchRepository.TYPE_CRM, SearchRepository.TYPE_TASK, SearchRepository.TYPE_MEETING);
+        // Title prefix matches rank ahead of body-only matches
+        assertThat(result.getHits().subList(0, 2)).extracting(SearchHitDto::getTitle)
+                .containsExactlyInAnyOrder("Acme Studios", "Acme logo refresh");
+    }
+
+    @Test
+    void snippetsAreEscapedAndHighlighted() {
+        SearchResultDto result = searchService.search("rebrand", List.of("crm"), 0, 20);
+
+        assertThat(result.getHits()).singleElement().satisfies(hit -> {
+            assertThat(hit.getSnippet()).contains("<mark>rebrand</mark>");
+            assertThat(hit.getSnippet()).contains("&lt;b&gt;before&lt;/b&gt;");
+        });
+    }
+
+    @Test
+    void paginatesWithHasMore() {
+        SearchResultDto first = searchService.search("acme", null, 0, 2);
+        SearchResultDto last = searchService.search("acme", null, 2, 2);
+
+        assertThat(first.getHits()).hasSize(2);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(last.getHits()).hasSize(1);
+        assertThat(last.isHasMore()).isFalse();
+    }
+
+    @Test
+    void filtersByTypeAndEscapesWildcards() {
+        assertThat(searchService.search("acme", List.of("task,meeting"), 0, 20).getHits())
+                .extracting(SearchHitDto::getType)
+                .doesNotContain(SearchRepository.TYPE_CRM)
+                .hasSize(3);
+        assertThat(searchService.search("a%", null, 0, 20).getHits()).isEmpty();
+    }
+
+    @Test
+    void rejectsShortQueriesAndUnknownTypes() {
+        assertThatThrownBy(() -> searchService.search(" a ", null, 0, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchService.search("acme", List.of("invoice"), 0, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsPagesPastTheMaximumOffset() {
+        int lastPage = SearchService.MAX_OFFSET / 20;
+        assertThat(searchService.search("acme", null, lastPage, 20).getHits()).isEmpty();
+        assertThatThrownBy(() -> searchService.search("acme", null, lastPage + 1, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchService.search("acme", null, Integer.MAX_VALUE, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,22 @@
+package com.incial.crm.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingExporterTest {
+
+    @Test
+    void csvCellQuotesSeparatorsAndNeutralisesFormulas() {
+        assertThat(StreamingExporter.csvCell(null)).isEmpty();
+        assertThat(StreamingExporter.csvCell("plain")).isEqualTo("plain");
+        assertThat(StreamingExporter.csvCell("a, \"b\"")).isEqualTo("\"a, \"\"b\"\"\"");
+        assertThat(StreamingExporter.csvCell("line\nbreak")).isEqualTo("\"line\nbreak\"");
+        assertThat(StreamingExporter.csvCell("=HYPERLINK(\"x\")")).isEqualTo("\"'=HYPERLINK(\"\"x\"\")\"");
+        assertThat(StreamingExporter.csvCell(new BigDecimal("-12.50"))).isEqualTo("-12.50");
+        assertThat(StreamingExporter.csvCell(List.of("design", "seo"))).isEqualTo("design; seo");
+    }
+}
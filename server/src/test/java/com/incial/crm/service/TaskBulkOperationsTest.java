@@ -0,0 +1,196 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.TaskDto;
+import com.incial.crm.entity.Task;
+import com.incial.crm.entity.TaskAssignee;
+import com.incial.crm.entity.TaskStatusBucket;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({TaskService.class, ChangeFeedService.class})
+class TaskBulkOperationsTest {
+
+    private static final int BATCHED_TASKS = 300;
+    // hibernate.jdbc.batch_size and the entities' allocationSize
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private EmailOutboxService emailOutboxService;
+
+    @MockBean
+    private StreamingExporter streamingExporter;
+
+    @MockBean
+    private LiveEventService liveEventService;
+
+    @BeforeEach
+    void setUp() {
+        when(userService.getNamesByEmail(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> emails = invocation.getArgument(0);
+            return emails.stream().collect(Collectors.toMap(email -> email, email -> "User " + email));
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkCreateSendsOneEmailPerAssignee() {
+        List<TaskDto> created = taskService.createTasks(List.of(
+                task("Hero banner", "jane@incial.com", "arjun@incial.com"),
+                task("Carousel", "jane@incial.com"),
+                task("Copy review", "jane@incial.com")));
+
+        assertThat(created).extracting(TaskDto::getId).doesNotContainNull().doesNotHaveDuplicates();
+
+        ArgumentCaptor<List<Task>> janeTasks = ArgumentCaptor.forClass(List.class);
+        verify(emailOutboxService).enqueueTaskAssignments(eq("jane@incial.com"), janeTasks.capture(), anyString());
+        assertThat(janeTasks.getValue()).extracting(Task::getTitle)
+                .containsExactly("Hero banner", "Carousel", "Copy review");
+        verify(emailOutboxService).enqueueTaskAssignments(eq("arjun@incial.com"), anyList(), anyString());
+        // Display names for the whole batch come from a single lookup
+        verify(userService, times(1)).getNamesByEmail(anyCollection());
+    }
+
+    @Test
+    void bulkStatusChangeUpdatesBucketAndCreditsNewlyCompletedTasks() {
+        List<TaskDto> created = taskService.createTasks(List.of(
+                task("Open", "jane@incial.com"),
+                withStatus(task("Already done", "arjun@incial.com"), "Done")));
+        entityManager.flush();
+        entityManager.clear();
+        List<Long> ids = created.stream().map(TaskDto::getId).toList();
+
+        List<TaskDto> updated = taskService.updateTaskStatuses(ids, "Completed");
+        entityManager.clear();
+
+        assertThat(updated).extracting(TaskDto::getStatus).containsOnly("Completed");
+        for (Long id : ids) {
+            Task task = entityManager.find(Task.class, id);
+            assertThat(task.getStatus()).isEqualTo("Completed");
+            assertThat(task.getStatusBucket()).isEqualTo(TaskStatusBucket.COMPLETED);
+        }
+        // Only the task that was not already done credits its assignee
+        verify(userService).incrementTasksCompleted(List.of("jane@incial.com"));
+    }
+
+    @Test
+    void bulkCreateIsSentInJdbcBatches() {
+        Statistics statistics = statistics();
+
+        taskService.createTasks(tasks(BATCHED_TASKS));
+
+        // One batch per BATCH_SIZE rows of tasks and of task_assignees, plus a sequence
+        // fetch per allocationSize ids for each; row-at-a-time inserts would be 600 statements
+        int batchesPerTable = (BATCHED_TASKS + BATCH_SIZE - 1) / BATCH_SIZE;
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(2L * BATCHED_TASKS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2L * (batchesPerTable + batchesPerTable + 1));
+    }
+
+    @Test
+    void bulkStatusChangeIsOneLoadAndOneUpdate() {
+        List<Long> ids = taskService.createTasks(tasks(BATCHED_TASKS)).stream().map(TaskDto::getId).toList();
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        taskService.updateTaskStatuses(ids, "Completed");
+
+        // The task load with assignees and a single UPDATE ... WHERE id IN
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        verify(userService).incrementTasksCompleted(anyList());
+    }
+
+    @Test
+    void assigneeChangesOnlyTouchAddedAndRemovedRows() {
+        Long id = taskService.createTasks(List.of(task("Launch", "jane@incial.com", "arjun@incial.com")))
+                .get(0).getId();
+        LocalDateTime originallyAssigned = LocalDateTime.of(2024, 1, 1, 9, 0);
+        entityManager.flush();
+        entityManager.createQuery("UPDATE TaskAssignee a SET a.assignedAt = :at")
+                .setParameter("at", originallyAssigned)
+                .executeUpdate();
+        entityManager.clear();
+
+        TaskDto change = TaskDto.builder().id(id).assignedToList(List.of("JANE@incial.com", "priya@incial.com")).build();
+        taskService.updateTasks(List.of(change));
+        entityManager.flush();
+        entityManager.clear();
+
+        Map<String, LocalDateTime> assignedAt = entityManager.find(Task.class, id).getAssignees().stream()
+                .collect(Collectors.toMap(TaskAssignee::getAssigneeEmail, TaskAssignee::getAssignedAt));
+        assertThat(assignedAt).containsOnlyKeys("jane@incial.com", "priya@incial.com");
+        assertThat(assignedAt.get("jane@incial.com")).isEqualTo(originallyAssigned);
+        assertThat(assignedAt.get("priya@incial.com")).isAfter(originallyAssigned);
+        verify(emailOutboxService).enqueueTaskAssignments(eq("priya@incial.com"), anyList(), anyString());
+        verify(emailOutboxService, times(1)).enqueueTaskAssignments(eq("jane@incial.com"), anyList(), anyString());
+    }
+
+    @Test
+    void bulkUpdateRejectsUnknownIdsAndOversizedBatches() {
+        TaskDto missing = TaskDto.builder().id(999_999L).title("Ghost").build();
+        assertThatThrownBy(() -> taskService.updateTasks(List.of(missing)))
+                .hasMessageContaining("999999");
+
+        assertThatThrownBy(() -> taskService.updateTaskStatuses(
+                LongStream.rangeClosed(1, TaskService.MAX_BULK_SIZE + 1).boxed().toList(), "Done"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static List<TaskDto> tasks(int count) {
+        return IntStream.range(0, count).mapToObj(i -> task("Task " + i, "jane@incial.com")).toList();
+    }
+
+    private static TaskDto task(String title, String... assignees) {
+        return TaskDto.builder()
+                .title(title)
+                .status("In Progress")
+                .assignedToList(List.of(assignees))
+                .build();
+    }
+
+    private static TaskDto withStatus(TaskDto dto, String status) {
+        dto.setStatus(status);
+        return dto;
+    }
+}
@@ -0,0 +1,100 @@
+package com.incial.crm.service;
+
+import com.incial.crm.entity.User;
+import com.incial.crm.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// No test-managed transaction: every increment must commit on its own, as in production
+@DataJpaTest
+@Import({UserService.class, UserDirectory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskCompletionCounterTest {
+
+    private static final int THREADS = 8;
+    private static final int COMPLETIONS_PER_THREAD = 25;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(user("jane@incial.com"));
+        userRepository.save(user("arjun@incial.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void parallelCompletionsDoNotLoseIncrements() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < COMPLETIONS_PER_THREAD; i++) {
+                        userService.incrementTasksCompleted(List.of("jane@incial.com", "arjun@incial.com"));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int expected = THREADS * COMPLETIONS_PER_THREAD;
+        assertThat(completed("jane@incial.com")).isEqualTo(expected);
+        assertThat(completed("arjun@incial.com")).isEqualTo(expected);
+    }
+
+    @Test
+    void creditsRepeatedEmailsOncePerOccurrenceAndSkipsUnknownUsers() {
+        int credited = userService.incrementTasksCompleted(
+                List.of("jane@incial.com", "jane@incial.com", "arjun@incial.com", "nobody@incial.com"));
+
+        assertThat(credited).isEqualTo(2);
+        assertThat(completed("jane@incial.com")).isEqualTo(2);
+        assertThat(completed("arjun@incial.com")).isEqualTo(1);
+    }
+
+    private int completed(String email) {
+        return userRepository.findByEmail(email).orElseThrow().getTasksCompleted();
+    }
+
+    private static User user(String email) {
+        return User.builder()
+                .name(email)
+                .email(email)
+                .passwordHash("x")
+                .role("ROLE_EMPLOYEE")
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.incial.crm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.incial.crm.entity.Task;
+import com.incial.crm.entity.TaskAssignee;
+import com.incial.crm.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The task export must cost one id cursor plus one statement per chunk of
+ * {@link StreamingExporter#CHUNK_SIZE} tasks, however many tasks have assignees.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({StreamingExporter.class, TaskExportFetchPlanTest.Json.class})
+class TaskExportFetchPlanTest {
+
+    private static final int TASKS = 1_200;
+
+    @Autowired
+    private StreamingExporter streamingExporter;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void exportLoadsAssigneesOncePerChunk() throws Exception {
+        for (int i = 0; i < TASKS; i++) {
+            Task task = Task.builder().title("Task " + i).status("Not Started").build();
+            entityManager.persist(task);
+            entityManager.persist(TaskAssignee.builder().task(task).assigneeEmail("alice@incial.com").assigneeName("Alice").build());
+            entityManager.persist(TaskAssignee.builder().task(task).assigneeEmail("bob@incial.com").assigneeName("Bob").build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written;
+        try (Stream<Long> ids = taskRepository.streamIdsForExport()) {
+            written = streamingExporter.writeInChunks(ids, taskRepository::findAllForExportByIdIn,
+                    task -> task.getId() + ":" + task.getAssignees().size(), ExportFormat.NDJSON, List.of(), out);
+        }
+
+        int chunks = (TASKS + StreamingExporter.CHUNK_SIZE - 1) / StreamingExporter.CHUNK_SIZE;
+        assertThat(written).isEqualTo(TASKS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + chunks);
+        assertThat(out.toString(StandardCharsets.UTF_8).lines())
+                .hasSize(TASKS)
+                .allSatisfy(line -> assertThat(line).endsWith(":2\""));
+    }
+
+    @TestConfiguration
+    static class Json {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+}
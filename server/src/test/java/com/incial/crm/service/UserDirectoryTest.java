@@ -0,0 +1,127 @@
+package com.incial.crm.service;
+
+import com.incial.crm.dto.UserDto;
+import com.incial.crm.dto.Versioned;
+import com.incial.crm.entity.User;
+import com.incial.crm.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({UserService.class, UserDirectory.class})
+class UserDirectoryTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User jane;
+
+    @BeforeEach
+    void setUp() {
+        // The directory outlives each test's rolled-back transaction
+        userDirectory.clear();
+        jane = userRepository.save(User.builder()
+                .name("Jane")
+                .email("jane@incial.com")
+                .passwordHash("x")
+                .role("ROLE_EMPLOYEE")
+                .clientCrmId(42L)
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void lookupsAreServedFromMemoryUntilTheUserIsWritten() {
+        assertThat(userService.getUserByEmail("jane@incial.com").getClientCrmId()).isEqualTo(42L);
+        renameBehindTheCache("Jane Doe");
+
+        assertThat(userService.getUserByEmail("jane@incial.com").getName()).isEqualTo("Jane");
+        assertThat(userService.getUserById(jane.getId()).getName()).isEqualTo("Jane Doe");
+
+        userService.updateUserRole(UserDto.builder().role("ROLE_ADMIN").build(), jane.getId());
+        UserDto reloaded = userService.getUserByEmail("jane@incial.com");
+        assertThat(reloaded.getName()).isEqualTo("Jane Doe");
+        assertThat(reloaded.getRole()).isEqualTo("ROLE_ADMIN");
+    }
+
+    @Test
+    void callersCannotMutateCachedEntries() {
+        userService.getUserByEmail("jane@incial.com").setName("Changed by caller");
+
+        assertThat(userService.getUserByEmail("jane@incial.com").getName()).isEqualTo("Jane");
+    }
+
+    @Test
+    void completionCreditEvictsBothLookups() {
+        userService.getUserById(jane.getId());
+        userService.getUserByEmail("jane@incial.com");
+
+        userService.incrementTasksCompleted(List.of("jane@incial.com"));
+        entityManager.clear();
+
+        assertThat(userService.getUserById(jane.getId()).getTasksCompleted()).isEqualTo(1);
+        assertThat(userService.getUserByEmail("jane@incial.com").getTasksCompleted()).isEqualTo(1);
+    }
+
+    @Test
+    void snapshotFollowsTheCollectionVersion() {
+        assertThat(userService.getAllUsers()).extracting(UserDto::getEmail).containsExactly("jane@incial.com");
+
+        userRepository.save(User.builder()
+                .name("Arjun")
+                .email("arjun@incial.com")
+                .passwordHash("x")
+                .role("ROLE_EMPLOYEE")
+                .build());
+        entityManager.flush();
+
+        assertThat(userService.getAllUsers()).extracting(UserDto::getEmail)
+                .containsExactlyInAnyOrder("jane@incial.com", "arjun@incial.com");
+    }
+
+    @Test
+    void etagAndBodyComeFromTheSameRead() {
+        Versioned<List<UserDto>> fresh = userService.getAllUsers(etag -> false);
+        assertThat(fresh.etag()).isEqualTo(userService.getUsersVersion());
+        assertThat(fresh.body()).extracting(UserDto::getEmail).containsExactly("jane@incial.com");
+
+        Versioned<List<UserDto>> current = userService.getAllUsers(fresh.etag()::equals);
+        assertThat(current.notModified()).isTrue();
+        assertThat(current.etag()).isEqualTo(fresh.etag());
+    }
+
+    @Test
+    void namesComeFromTheCacheAndSkipUnknownEmails() {
+        userService.getUserByEmail("jane@incial.com");
+        renameBehindTheCache("Jane Doe");
+
+        assertThat(userService.getNamesByEmail(List.of("jane@incial.com", "nobody@incial.com")))
+                .containsExactly(Map.entry("jane@incial.com", "Jane"));
+    }
+
+    private void renameBehindTheCache(String name) {
+        entityManager.createQuery("UPDATE User u SET u.name = :name WHERE u.id = :id")
+                .setParameter("name", name)
+                .setParameter("id", jane.getId())
+                .executeUpdate();
+        entityManager.clear();
+    }
+}